@@ -6,35 +6,37 @@ import java.lang.reflect.Method;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
 
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebDriverException;
 import org.testng.ITestResult;
 import org.testng.annotations.*;
 
-import com.aventstack.extentreports.ExtentReports;
-import com.aventstack.extentreports.ExtentTest;
-import com.aventstack.extentreports.MediaEntityBuilder;
-
-import reporters.ExtentManager;          // <-- make sure this file exists under src/main/java/reporters
+import pages.AmazonHomePage;
+import reporters.ReportingService;
+import reporters.ReportingService.ReportTest;
+import utils.EvidencePolicy;
+import utils.LocatorPriorityCache;
+import utils.PageLoad;
 import utils.ResultsExcelWriter;        // <-- simple stub provided below
+import utils.ScreenshotPipeline;
 import utils.ScreenshotUtils;           // <-- simple helper provided below
 
 public class BaseTest {
 
     protected WebDriver driver;
-    protected static ExtentReports extent;
 
-    private static final ThreadLocal<ExtentTest> TEST = new ThreadLocal<>();
+    // report calls only queue events; ReportingService applies them on its own thread
+    private static final ThreadLocal<ReportTest> TEST = new ThreadLocal<>();
     private static String RUN_FOLDER;
 
-    protected void startTest(String name) { TEST.set(extent.createTest(name)); }
-    protected ExtentTest getTest() { return TEST.get(); }
+    protected void startTest(String name) { TEST.set(ReportingService.startTest(name)); }
+    protected ReportTest getTest() { return TEST.get(); }
 
     @BeforeSuite(alwaysRun = true)
     public void setupExtent() {
-        extent = ExtentManager.getInstance();
-
         String ts = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss"));
         RUN_FOLDER = "test-output/screenshots/run_" + ts;
 
@@ -48,11 +50,14 @@ public class BaseTest {
                       @Optional("https://www.amazon.in/") String baseUrl,
                       @Optional("chrome") String browser) {
 
-        driver = DriverFactory.create(browser);
+        driver = DriverPool.getInstance().lease(browser);
         driver.manage().window().maximize();
         driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(0));
 
-        TEST.set(extent.createTest(method.getName()));
+        List<String> groups = Arrays.asList(method.getAnnotation(Test.class) == null
+                ? new String[0] : method.getAnnotation(Test.class).groups());
+        TEST.set(ReportingService.startTest(method.getName(), getClass().getSimpleName(), groups));
+        ResourcePolicy.apply(driver, groups);
         openUrlWithRetries(baseUrl, 4, Duration.ofSeconds(5));
     }
 
@@ -60,7 +65,7 @@ public class BaseTest {
         RuntimeException last = null;
         for (int attempt = 1; attempt <= maxAttempts; attempt++) {
             try {
-                driver.get(url);
+                PageLoad.navigate(driver, url, new AmazonHomePage(driver).readiness());
                 return;
             } catch (WebDriverException e) {
                 String msg = String.valueOf(e.getMessage());
@@ -84,36 +89,44 @@ public class BaseTest {
         String snapPath = null;
 
         try {
-            snapPath = ScreenshotUtils.takeScreenshot(driver, result.getName());
+            // passing tests only pay for a capture when evidence.policy asks for it
+            if (driver != null && EvidencePolicy.current().capturesAtEnd(result.getStatus() == ITestResult.FAILURE)) {
+                snapPath = ScreenshotUtils.takeScreenshot(driver, result.getName());
+            }
 
             if (result.getStatus() == ITestResult.FAILURE) {
                 status = "FAIL";
-                getTest().fail(result.getThrowable(),
-                        MediaEntityBuilder.createScreenCaptureFromPath(snapPath).build());
+                getTest().fail(result.getThrowable(), snapPath);
             } else if (result.getStatus() == ITestResult.SUCCESS) {
                 status = "PASS";
-                getTest().pass("Test passed",
-                        MediaEntityBuilder.createScreenCaptureFromPath(snapPath).build());
+                getTest().pass("Test passed", snapPath);
             } else {
                 status = "SKIP";
-                getTest().skip("Test skipped",
-                        MediaEntityBuilder.createScreenCaptureFromPath(snapPath).build());
+                getTest().skip("Test skipped", snapPath);
             }
         } catch (Exception e) {
             status = (result.getStatus() == ITestResult.SUCCESS) ? "PASS"
                    : (result.getStatus() == ITestResult.FAILURE ? "FAIL" : "SKIP");
         }
 
-        try { ResultsExcelWriter.append(result.getName(), status, snapPath); } catch (Exception ignored) {}
-
-        if (driver != null) driver.quit();
-        try { TEST.remove(); } catch (Exception ignored) {}
+        try {
+            Throwable t = result.getThrowable();
+            ResultsExcelWriter.append(result.getTestClass().getName(), result.getName(), status, snapPath,
+                    result.getEndMillis() - result.getStartMillis(), t == null ? null : String.valueOf(t));
+        } catch (Exception ignored) {}
+
+        if (driver != null) DriverPool.getInstance().release(driver);
+        driver = null;
+        try { if (getTest() != null) getTest().end(); TEST.remove(); } catch (Exception ignored) {}
     }
 
     @AfterSuite(alwaysRun = true)
     public void tearDownSuite() {
-        try { if (extent != null) extent.flush(); } catch (Exception ignored) {}
+        ScreenshotPipeline.flush(Duration.ofSeconds(60));
+        try { ReportingService.flush(); } catch (Exception ignored) {}
         try { ResultsExcelWriter.close(); } catch (Exception ignored) {}
+        LocatorPriorityCache.save();
+        DriverFactory.shutdown();
         openExtentSparkReport();
     }
 
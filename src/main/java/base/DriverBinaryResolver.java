@@ -0,0 +1,346 @@
+package base;
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+import utils.ConfigService;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Resolves the driver binary (chromedriver / geckodriver / msedgedriver) once per JVM.
+ *
+ * Resolved paths are remembered in a small properties file keyed by browser and version,
+ * so later runs skip WebDriverManager entirely. In offline mode the network is never
+ * touched: a cache miss falls back to scanning the local driver caches.
+ *
+ * Config keys (system property wins over config.properties):
+ *   driver.offline          true = never call WebDriverManager (default false)
+ *   driver.cacheFile        cache location (default ~/.cache/amazon-search-automation/driver-binaries.properties)
+ *   driver.cacheTtlHours    re-resolve online after this many hours (default 24; ignored offline)
+ *   driver.version.&lt;browser&gt; pin a driver version, e.g. driver.version.chrome=127.0.6533.88
+ *   driver.browserVersion.&lt;browser&gt; installed browser version, when it can't be detected from the command line
+ */
+public final class DriverBinaryResolver {
+
+    private static final Map<String, String> RESOLVED = new ConcurrentHashMap<>();
+    // webdriver.*.driver values this class exported itself (browser -> path); user-set ones are never touched
+    private static final Map<String, String> EXPORTED = new ConcurrentHashMap<>();
+    private static final Map<String, String> BROWSER_MAJOR = new ConcurrentHashMap<>();
+    private static final Pattern VERSION = Pattern.compile("\\d+(\\.\\d+)+");
+    private static final Object FILE_LOCK = new Object();
+
+    private DriverBinaryResolver() {}
+
+    /** Resolve (once) and export the driver binary for the browser. Returns the binary path. */
+    public static String resolve(String browser) {
+        String key = browser == null ? "chrome" : browser.toLowerCase();
+        return RESOLVED.computeIfAbsent(key, DriverBinaryResolver::resolveNow);
+    }
+
+    /** Forget a resolution, e.g. after the installed browser auto-updated and the driver no longer matches. */
+    public static void invalidate(String browser) {
+        String key = browser == null ? "chrome" : browser.toLowerCase();
+        RESOLVED.remove(key);
+        BROWSER_MAJOR.remove(key);
+        // drop the property only if we exported it, so the next resolve does not short-circuit on it
+        String exported = EXPORTED.remove(key);
+        if (exported != null && exported.equals(System.getProperty(driverProperty(key)))) {
+            System.clearProperty(driverProperty(key));
+        }
+        synchronized (FILE_LOCK) {
+            Properties cache = loadCache();
+            if (cache.remove(cacheKey(key) + ".path") != null) {
+                cache.remove(cacheKey(key) + ".driverVersion");
+                cache.remove(cacheKey(key) + ".resolvedAt");
+                storeCache(cache);
+            }
+        }
+    }
+
+    private static String resolveNow(String browser) {
+        long start = System.nanoTime();
+        String property = driverProperty(browser);
+
+        // 1) explicitly configured binary
+        String explicit = System.getProperty(property);
+        if (explicit != null && Files.isExecutable(Paths.get(explicit))) {
+            log(browser, explicit, "system property " + property, start);
+            return explicit;
+        }
+
+        boolean offline = ConfigService.getBoolean("driver.offline", false);
+        String ck = cacheKey(browser);
+
+        // 2) local cache from a previous run
+        Properties cache;
+        synchronized (FILE_LOCK) {
+            cache = loadCache();
+        }
+        String cached = cache.getProperty(ck + ".path");
+        if (cached != null && Files.isExecutable(Paths.get(cached))) {
+            long ageHours = TimeUnit.MILLISECONDS.toHours(
+                    System.currentTimeMillis() - parseLong(cache.getProperty(ck + ".resolvedAt"), 0));
+            long ttl = ConfigService.getLong("driver.cacheTtlHours", 24);
+            if (offline || ageHours < ttl) {
+                export(browser, cached);
+                log(browser, cached, "cache (driver " + cache.getProperty(ck + ".driverVersion", "?") + ")", start);
+                return cached;
+            }
+        }
+
+        // 3) offline: look for an already-downloaded binary, never the network
+        if (offline) {
+            Optional<Path> local = scanLocalCaches(browser);
+            if (!local.isPresent()) {
+                throw new IllegalStateException("driver.offline=true but no cached " + binaryName(browser)
+                        + " found. Resolve once online, or set -D" + property + "=<path>");
+            }
+            String path = local.get().toString();
+            export(browser, path);
+            remember(ck, path, "local-scan");
+            log(browser, path, "offline scan", start);
+            return path;
+        }
+
+        // 4) online: WebDriverManager, then remember the result
+        WebDriverManager wdm = manager(browser);
+        String pinned = ConfigService.getString("driver.version." + browser, "");
+        if (!pinned.isBlank()) wdm.driverVersion(pinned);
+        wdm.setup();
+
+        String path = wdm.getDownloadedDriverPath();
+        if (path == null || path.isBlank()) {
+            // WDM left resolution to Selenium Manager; nothing to cache
+            log(browser, "(selenium manager)", "WebDriverManager", start);
+            return "";
+        }
+        export(browser, path);
+        remember(ck, path, wdm.getDownloadedDriverVersion());
+        log(browser, path, "WebDriverManager (driver " + wdm.getDownloadedDriverVersion() + ")", start);
+        return path;
+    }
+
+    private static void export(String browser, String path) {
+        System.setProperty(driverProperty(browser), path);
+        EXPORTED.put(browser, path);
+    }
+
+    // =================== Cache file ===================
+
+    private static void remember(String ck, String path, String driverVersion) {
+        synchronized (FILE_LOCK) {
+            Properties cache = loadCache();
+            cache.setProperty(ck + ".path", path);
+            cache.setProperty(ck + ".driverVersion", driverVersion == null ? "" : driverVersion);
+            cache.setProperty(ck + ".resolvedAt", String.valueOf(System.currentTimeMillis()));
+            storeCache(cache);
+        }
+    }
+
+    private static Properties loadCache() {
+        Properties p = new Properties();
+        Path file = cacheFile();
+        if (Files.exists(file)) {
+            try (InputStream in = Files.newInputStream(file)) {
+                p.load(in);
+            } catch (IOException e) {
+                System.out.println("⚠ Could not read driver cache " + file + ": " + e.getMessage());
+            }
+        }
+        return p;
+    }
+
+    private static void storeCache(Properties p) {
+        Path file = cacheFile();
+        try {
+            Files.createDirectories(file.getParent());
+            Path tmp = Files.createTempFile(file.getParent(), ".driver-cache-", ".tmp");
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                p.store(out, "Resolved WebDriver binaries (browser.version -> path)");
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            System.out.println("⚠ Could not write driver cache " + file + ": " + e.getMessage());
+        }
+    }
+
+    private static Path cacheFile() {
+        String configured = ConfigService.getString("driver.cacheFile", "");
+        if (!configured.isBlank()) return Paths.get(configured);
+        return Paths.get(System.getProperty("user.home"), ".cache", "amazon-search-automation", "driver-binaries.properties");
+    }
+
+    /**
+     * browser + pinned driver version, else the installed browser's major ("chrome.b127"), so a browser
+     * auto-update is a cache miss instead of a mismatched driver; "auto" when the browser can't be detected.
+     */
+    private static String cacheKey(String browser) {
+        String pinned = ConfigService.getString("driver.version." + browser, "");
+        if (!pinned.isBlank()) return browser + "." + pinned;
+        String major = installedMajor(browser);
+        return browser + "." + (major.isEmpty() ? "auto" : "b" + major);
+    }
+
+    // =================== Offline scan ===================
+
+    /**
+     * Best matching binary in the WebDriverManager / Selenium Manager caches: for Chrome/Edge one whose version
+     * directory has the installed browser's major, otherwise the highest version (compared numerically).
+     */
+    private static Optional<Path> scanLocalCaches(String browser) {
+        String name = binaryName(browser);
+        // geckodriver versions are independent of Firefox's
+        String major = browser.equals("firefox") ? "" : installedMajor(browser);
+        Comparator<Path> best = Comparator
+                .comparing((Path p) -> !major.isEmpty() && major.equals(versionOf(p).isEmpty() ? "" : String.valueOf(versionOf(p).get(0))))
+                .thenComparing(DriverBinaryResolver::versionOf, DriverBinaryResolver::compareVersions);
+        Path home = Paths.get(System.getProperty("user.home"));
+        Path[] roots = {
+                home.resolve(".cache").resolve("selenium"),
+                home.resolve(".m2").resolve("repository").resolve("webdriver")
+        };
+        for (Path root : roots) {
+            if (!Files.isDirectory(root)) continue;
+            try (Stream<Path> files = Files.walk(root, 6)) {
+                Optional<Path> newest = files
+                        .filter(f -> {
+                            String fn = f.getFileName().toString();
+                            return (fn.equals(name) || fn.equals(name + ".exe")) && Files.isExecutable(f);
+                        })
+                        .max(best);
+                if (newest.isPresent()) return newest;
+            } catch (IOException ignored) {}
+        }
+        return Optional.empty();
+    }
+
+    /** Numeric segments of the nearest version-like directory above the binary ("127.0.6533.88" -> [127,0,6533,88]). */
+    static List<Integer> versionOf(Path binary) {
+        for (Path dir = binary.getParent(); dir != null && dir.getFileName() != null; dir = dir.getParent()) {
+            Matcher m = VERSION.matcher(dir.getFileName().toString());
+            if (m.find()) {
+                List<Integer> parts = new ArrayList<>();
+                for (String s : m.group().split("\\.")) {
+                    try { parts.add(Integer.parseInt(s)); } catch (NumberFormatException e) { parts.add(0); }
+                }
+                return parts;
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    static int compareVersions(List<Integer> a, List<Integer> b) {
+        for (int i = 0; i < Math.max(a.size(), b.size()); i++) {
+            int x = i < a.size() ? a.get(i) : 0;
+            int y = i < b.size() ? b.get(i) : 0;
+            if (x != y) return Integer.compare(x, y);
+        }
+        return 0;
+    }
+
+    /**
+     * Major version of the installed browser ("127"), or "" when it can't be detected.
+     * driver.browserVersion.&lt;browser&gt; overrides detection (e.g. on machines where the binary isn't on PATH).
+     */
+    static String installedMajor(String browser) {
+        return BROWSER_MAJOR.computeIfAbsent(browser, b -> {
+            String configured = ConfigService.getString("driver.browserVersion." + b, "");
+            String version = configured.isBlank() ? detectBrowserVersion(b) : configured;
+            Matcher m = Pattern.compile("\\d+").matcher(version == null ? "" : version);
+            return m.find() ? m.group() : "";
+        });
+    }
+
+    private static String detectBrowserVersion(String browser) {
+        List<List<String>> commands = new ArrayList<>();
+        boolean windows = System.getProperty("os.name", "").toLowerCase().contains("win");
+        switch (browser) {
+            case "firefox":
+                commands.add(List.of("firefox", "--version"));
+                commands.add(List.of("/Applications/Firefox.app/Contents/MacOS/firefox", "--version"));
+                break;
+            case "edge":
+                if (windows) commands.add(List.of("reg", "query", "HKCU\\Software\\Microsoft\\Edge\\BLBeacon", "/v", "version"));
+                commands.add(List.of("microsoft-edge", "--version"));
+                commands.add(List.of("/Applications/Microsoft Edge.app/Contents/MacOS/Microsoft Edge", "--version"));
+                break;
+            default:
+                if (windows) commands.add(List.of("reg", "query", "HKCU\\Software\\Google\\Chrome\\BLBeacon", "/v", "version"));
+                commands.add(List.of("google-chrome", "--version"));
+                commands.add(List.of("google-chrome-stable", "--version"));
+                commands.add(List.of("chromium", "--version"));
+                commands.add(List.of("chromium-browser", "--version"));
+                commands.add(List.of("/Applications/Google Chrome.app/Contents/MacOS/Google Chrome", "--version"));
+        }
+        for (List<String> cmd : commands) {
+            try {
+                Process p = new ProcessBuilder(cmd).redirectErrorStream(true).start();
+                if (!p.waitFor(5, TimeUnit.SECONDS)) {
+                    p.destroyForcibly();
+                    continue;
+                }
+                String out = new String(p.getInputStream().readAllBytes());
+                Matcher m = VERSION.matcher(out);
+                if (p.exitValue() == 0 && m.find()) return m.group();
+            } catch (IOException ignored) {
+                // not installed under this name
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }
+        return null;
+    }
+
+    // =================== Helpers ===================
+
+    private static WebDriverManager manager(String browser) {
+        switch (browser) {
+            case "firefox": return WebDriverManager.firefoxdriver();
+            case "edge":    return WebDriverManager.edgedriver();
+            default:        return WebDriverManager.chromedriver();
+        }
+    }
+
+    private static String driverProperty(String browser) {
+        switch (browser) {
+            case "firefox": return "webdriver.gecko.driver";
+            case "edge":    return "webdriver.edge.driver";
+            default:        return "webdriver.chrome.driver";
+        }
+    }
+
+    private static String binaryName(String browser) {
+        switch (browser) {
+            case "firefox": return "geckodriver";
+            case "edge":    return "msedgedriver";
+            default:        return "chromedriver";
+        }
+    }
+
+    private static void log(String browser, String path, String source, long startNanos) {
+        System.out.println("[DriverBinaryResolver] " + browser + " -> " + path + " via " + source + " in "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos) + " ms");
+    }
+
+    private static long parseLong(String s, long defaultVal) {
+        try { return s == null ? defaultVal : Long.parseLong(s.trim()); } catch (NumberFormatException e) { return defaultVal; }
+    }
+}
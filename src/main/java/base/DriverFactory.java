@@ -1,54 +1,95 @@
 package base;
 
-import io.github.bonigarcia.wdm.WebDriverManager;
+import org.openqa.selenium.SessionNotCreatedException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.edge.EdgeDriver;
+import org.openqa.selenium.edge.EdgeOptions;
 import org.openqa.selenium.firefox.FirefoxDriver;
+import org.openqa.selenium.firefox.FirefoxOptions;
+import utils.ConfigService;
+import utils.PageLoad;
 
 public class DriverFactory {
-    private static WebDriver driver;
+    // one leased browser per worker thread; browsers themselves live in DriverPool
+    private static final ThreadLocal<WebDriver> DRIVER = new ThreadLocal<>();
 
+    /** Browser for the current thread, leased from the pool on first use. */
     public static WebDriver getDriver() {
+        WebDriver driver = DRIVER.get();
         if (driver == null) {
-            driver = create("chrome"); // default to chrome
+            driver = DriverPool.getInstance().lease(defaultBrowser());
+            DRIVER.set(driver);
         }
         return driver;
     }
 
+    public static String defaultBrowser() {
+        return ConfigService.getString("browser", "chrome");
+    }
+
+    /** Launches a brand-new browser (not pooled). */
     public static WebDriver create(String browser) {
         if (browser == null) browser = "chrome";
 
+        // driver binary is resolved once per JVM (and cached across runs), not per launch
+        DriverBinaryResolver.resolve(browser);
+        WebDriver driver;
+        try {
+            driver = launch(browser);
+        } catch (SessionNotCreatedException e) {
+            // cached driver no longer matches the (auto-updated) browser: resolve again and retry once
+            System.out.println("⚠ Session not created with cached driver, re-resolving: " + e.getMessage());
+            DriverBinaryResolver.invalidate(browser);
+            DriverBinaryResolver.resolve(browser);
+            driver = launch(browser);
+        }
+
+        driver.manage().window().maximize();
+        return driver;
+    }
+
+    // pageLoadStrategy eager/none: navigation returns early and page objects wait on their own readiness probe
+    private static WebDriver launch(String browser) {
         switch (browser.toLowerCase()) {
             case "firefox":
-                WebDriverManager.firefoxdriver().setup();
-                driver = new FirefoxDriver();
-                break;
+                FirefoxOptions ff = new FirefoxOptions();
+                ff.setPageLoadStrategy(PageLoad.strategy());
+                return new FirefoxDriver(ff);
 
             case "edge":
-                WebDriverManager.edgedriver().setup();
-                driver = new EdgeDriver();
-                break;
+                EdgeOptions edge = new EdgeOptions();
+                edge.setPageLoadStrategy(PageLoad.strategy());
+                return new EdgeDriver(edge);
 
             default:
-                WebDriverManager.chromedriver().setup();
                 ChromeOptions options = new ChromeOptions();
+                options.setPageLoadStrategy(PageLoad.strategy());
                 if ("true".equalsIgnoreCase(System.getProperty("headless"))) {
                     options.addArguments("--headless=new");
                 }
-                driver = new ChromeDriver(options);
-                break;
+                return new ChromeDriver(options);
         }
+    }
 
-        driver.manage().window().maximize();
-        return driver;
+    /** Return the current thread's browser to the pool (reset and kept warm). */
+    public static void releaseDriver() {
+        WebDriver driver = DRIVER.get();
+        DRIVER.remove();
+        if (driver != null) DriverPool.getInstance().release(driver);
     }
 
+    /** Quit the current thread's browser instead of returning it to the pool. */
     public static void quitDriver() {
-        if (driver != null) {
-            driver.quit();
-            driver = null;
-        }
+        WebDriver driver = DRIVER.get();
+        DRIVER.remove();
+        if (driver != null) DriverPool.getInstance().discard(driver);
+    }
+
+    /** Quit every pooled browser; call once at the end of the suite. */
+    public static void shutdown() {
+        DRIVER.remove();
+        DriverPool.getInstance().shutdown();
     }
 }
@@ -0,0 +1,511 @@
+package base;
+
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.WebDriver;
+import utils.ConfigService;
+import utils.OverlayDismisser;
+import utils.PageLoad;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded pool of warm browsers shared by all worker threads.
+ *
+ * A thread leases a browser, uses it for one scenario / test method and returns it.
+ * Returned browsers are reset (cookies, storage, extra windows) and kept idle so the
+ * next lease skips the browser launch. Idle browsers older than the idle timeout are quit.
+ *
+ * When a landing URL is set, every browser is pre-navigated there (cookie banner accepted)
+ * before it becomes idle. Returned browsers are reset and re-navigated on a background
+ * thread, so the next scenario starts on an already loaded page.
+ *
+ * Config keys (read through ConfigService, so -D and AMZ_* env overrides apply):
+ *   pool.maxSize             max live browsers (default: number of cores, or "threads" if larger)
+ *   pool.idleTimeoutSeconds  quit browsers idle for longer than this (default 300)
+ *   pool.leaseTimeoutSeconds max time a thread waits for a free browser (default 600)
+ */
+public final class DriverPool {
+
+    private static final DriverPool INSTANCE = new DriverPool(
+            ConfigService.getInt("pool.maxSize",
+                    Math.max(Runtime.getRuntime().availableProcessors(), ConfigService.getInt("threads", 1))),
+            Duration.ofSeconds(ConfigService.getInt("pool.idleTimeoutSeconds", 300)),
+            Duration.ofSeconds(ConfigService.getInt("pool.leaseTimeoutSeconds", 600)));
+
+    private final int maxSize;
+    private final Duration idleTimeout;
+    private final Duration leaseTimeout;
+
+    // guarded by lock
+    private final Object lock = new Object();
+    private final ArrayDeque<PooledDriver> idle = new ArrayDeque<>();
+    private int live = 0;
+    private boolean closed = false;
+    private final Map<String, Integer> preparing = new HashMap<>(); // browsers being reset/re-navigated, per type
+
+    private final Map<WebDriver, PooledDriver> leased = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService evictor;
+    private final ExecutorService preparer;
+
+    // page every idle browser is parked on (null = park on whatever page it was left)
+    private volatile String landingUrl;
+
+    // metrics
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong leases = new AtomicLong();
+    private final AtomicLong returns = new AtomicLong();
+    private final AtomicLong reused = new AtomicLong();
+    private final AtomicLong evicted = new AtomicLong();
+    private final AtomicLong discarded = new AtomicLong();
+    private final AtomicLong waits = new AtomicLong();
+    private final AtomicLong leaseWaitNanos = new AtomicLong();
+    private final AtomicLong peakLeased = new AtomicLong();
+
+    private DriverPool(int maxSize, Duration idleTimeout, Duration leaseTimeout) {
+        this.maxSize = Math.max(1, maxSize);
+        this.idleTimeout = idleTimeout;
+        this.leaseTimeout = leaseTimeout;
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "driver-pool-evictor");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(5, Math.min(60, idleTimeout.getSeconds() / 2));
+        evictor.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.SECONDS);
+
+        this.preparer = Executors.newFixedThreadPool(this.maxSize, r -> {
+            Thread t = new Thread(r, "driver-pool-prepare");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public static DriverPool getInstance() {
+        return INSTANCE;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /** Pre-navigate idle browsers to this URL (null disables pre-navigation). */
+    public void setLandingUrl(String url) {
+        this.landingUrl = (url == null || url.isBlank()) ? null : url;
+    }
+
+    /**
+     * The lease needs every resource (e.g. a @visual scenario): if the landing page was parked with resources
+     * blocked, forget it so the caller's own navigation loads it in full.
+     */
+    public void requireFullLanding(WebDriver driver) {
+        PooledDriver pd = leased.get(driver);
+        if (pd != null && pd.landedBlocked) pd.landedUrl = null;
+    }
+
+    /**
+     * True (once per lease) if the browser is still parked on the pre-navigated landing page for {@code url},
+     * so the caller can skip its own navigation.
+     */
+    public boolean consumeLanding(WebDriver driver, String url) {
+        PooledDriver pd = leased.get(driver);
+        if (pd == null || pd.landedUrl == null || url == null || !url.equals(pd.landingUrl)) return false;
+        String landed = pd.landedUrl;
+        pd.landedUrl = null;
+        try {
+            return landed.equals(driver.getCurrentUrl());
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    // =================== Lease / return ===================
+
+    /** Lease a browser of the given type, reusing an idle one when possible. Blocks while the pool is full. */
+    public WebDriver lease(String browser) {
+        String key = normalize(browser);
+        long start = System.nanoTime();
+        long deadline = start + leaseTimeout.toNanos();
+
+        PooledDriver pd;
+        PooledDriver victim = null;
+        boolean create = false;
+
+        synchronized (lock) {
+            while (true) {
+                if (closed) throw new IllegalStateException("DriverPool is shut down");
+
+                pd = pollIdle(key);
+                if (pd != null) break;
+
+                // a returned browser is about to become idle; waiting for it beats launching a new one
+                boolean comingBack = preparing.getOrDefault(key, 0) > 0;
+
+                if (!comingBack && live < maxSize) {
+                    live++;
+                    create = true;
+                    break;
+                }
+
+                // pool is full but an idle browser of another type can give up its slot
+                victim = comingBack ? null : idle.pollLast();
+                if (victim != null) {
+                    create = true;
+                    break;
+                }
+
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new IllegalStateException("Timed out after " + leaseTimeout.getSeconds()
+                            + "s waiting for a free browser. " + stats());
+                }
+                waits.incrementAndGet();
+                try {
+                    lock.wait(Math.max(1, TimeUnit.NANOSECONDS.toMillis(remaining)));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for a browser", e);
+                }
+            }
+        }
+
+        if (victim != null) {
+            evicted.incrementAndGet();
+            quietQuit(victim.driver);
+        }
+
+        if (create) {
+            try {
+                pd = new PooledDriver(key, DriverFactory.create(key));
+                created.incrementAndGet();
+            } catch (RuntimeException e) {
+                releaseSlot();
+                throw e;
+            }
+        } else {
+            reused.incrementAndGet();
+        }
+
+        leased.put(pd.driver, pd);
+        leases.incrementAndGet();
+        leaseWaitNanos.addAndGet(System.nanoTime() - start);
+        peakLeased.accumulateAndGet(leased.size(), Math::max);
+        return pd.driver;
+    }
+
+    /** Return a leased browser. It is reset and kept warm, or quit if it no longer responds. */
+    public void release(WebDriver driver) {
+        if (driver == null) return;
+        PooledDriver pd = leased.remove(driver);
+        if (pd == null) {
+            // not leased from this pool (or already returned)
+            quietQuit(driver);
+            return;
+        }
+        returns.incrementAndGet();
+        pd.landedUrl = null;
+
+        if (landingUrl == null) {
+            recycle(pd, false);
+            return;
+        }
+
+        // reset + re-navigate off the worker thread; the worker moves straight on to teardown
+        synchronized (lock) {
+            preparing.merge(pd.browser, 1, Integer::sum);
+        }
+        try {
+            preparer.execute(() -> recycle(pd, true));
+        } catch (RuntimeException e) {
+            recycle(pd, true); // executor already shut down
+        }
+    }
+
+    private void recycle(PooledDriver pd, boolean prepared) {
+        boolean ok = reset(pd) && (landingUrl == null || prepare(pd));
+        pd.lastReturnedAt = System.nanoTime();
+
+        boolean quit = false;
+        synchronized (lock) {
+            if (prepared) preparing.merge(pd.browser, -1, Integer::sum);
+            if (!ok || closed) {
+                if (live > 0) live--; // shutdown() may already have zeroed the count
+                quit = true;
+                if (!ok) discarded.incrementAndGet();
+            } else {
+                idle.addFirst(pd); // LIFO keeps the hottest browsers busy and lets cold ones age out
+            }
+            lock.notifyAll();
+        }
+        if (quit) quietQuit(pd.driver);
+    }
+
+    /** Quit a leased browser instead of returning it (e.g. after a crash). */
+    public void discard(WebDriver driver) {
+        if (driver == null) return;
+        PooledDriver pd = leased.remove(driver);
+        quietQuit(driver);
+        if (pd != null) {
+            discarded.incrementAndGet();
+            releaseSlot();
+        }
+    }
+
+    /**
+     * Launch browsers up-front, concurrently, so the first leases do not pay the launch cost.
+     * Each browser is pre-navigated to the landing URL (if set) before this method returns.
+     */
+    public void warmUp(String browser, int count) {
+        String key = normalize(browser);
+        int slots;
+        synchronized (lock) {
+            if (closed) return;
+            slots = Math.max(0, Math.min(count, maxSize - live));
+            live += slots;
+        }
+        if (slots == 0) return;
+
+        long start = System.nanoTime();
+        List<Callable<Boolean>> launches = new ArrayList<>();
+        for (int i = 0; i < slots; i++) {
+            launches.add(() -> {
+                try {
+                    PooledDriver pd = new PooledDriver(key, DriverFactory.create(key));
+                    created.incrementAndGet();
+                    if (landingUrl != null && !prepare(pd)) {
+                        discarded.incrementAndGet();
+                        quietQuit(pd.driver);
+                        releaseSlot();
+                        return false;
+                    }
+                    pd.lastReturnedAt = System.nanoTime();
+                    synchronized (lock) {
+                        idle.addLast(pd);
+                        lock.notifyAll();
+                    }
+                    return true;
+                } catch (RuntimeException e) {
+                    releaseSlot();
+                    System.out.println("[DriverPool] warm-up launch failed: " + e.getMessage());
+                    return false;
+                }
+            });
+        }
+
+        int ready = 0;
+        try {
+            for (Future<Boolean> f : preparer.invokeAll(launches)) {
+                try { if (Boolean.TRUE.equals(f.get())) ready++; } catch (Exception ignored) {}
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        System.out.println("[DriverPool] warm-up: " + ready + "/" + slots + " " + key + " browser(s) ready in "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms"
+                + (landingUrl != null ? " on " + landingUrl : ""));
+    }
+
+    /** Quit every browser (idle and leased) and stop the evictor. */
+    public void shutdown() {
+        List<PooledDriver> toQuit = new ArrayList<>();
+        synchronized (lock) {
+            if (closed) return;
+            closed = true;
+            toQuit.addAll(idle);
+            idle.clear();
+            toQuit.addAll(leased.values());
+            leased.clear();
+            live = 0;
+            lock.notifyAll();
+        }
+        evictor.shutdownNow();
+        preparer.shutdownNow();
+        for (PooledDriver pd : toQuit) quietQuit(pd.driver);
+        System.out.println("[DriverPool] shutdown: " + stats());
+    }
+
+    // =================== Metrics ===================
+
+    public Stats stats() {
+        int idleNow;
+        int liveNow;
+        synchronized (lock) {
+            idleNow = idle.size();
+            liveNow = live;
+        }
+        long leaseCount = leases.get();
+        return new Stats(maxSize, liveNow, idleNow, leased.size(), peakLeased.get(),
+                created.get(), leaseCount, returns.get(), reused.get(), evicted.get(), discarded.get(),
+                waits.get(), leaseCount == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(leaseWaitNanos.get()) / leaseCount);
+    }
+
+    /** Point-in-time snapshot of pool counters. */
+    public static final class Stats {
+        public final int maxSize, live, idle, leased;
+        public final long peakLeased, created, leases, returns, reused, evicted, discarded, waits, avgLeaseWaitMs;
+
+        Stats(int maxSize, int live, int idle, int leased, long peakLeased, long created, long leases,
+              long returns, long reused, long evicted, long discarded, long waits, long avgLeaseWaitMs) {
+            this.maxSize = maxSize;
+            this.live = live;
+            this.idle = idle;
+            this.leased = leased;
+            this.peakLeased = peakLeased;
+            this.created = created;
+            this.leases = leases;
+            this.returns = returns;
+            this.reused = reused;
+            this.evicted = evicted;
+            this.discarded = discarded;
+            this.waits = waits;
+            this.avgLeaseWaitMs = avgLeaseWaitMs;
+        }
+
+        @Override
+        public String toString() {
+            return "max=" + maxSize + " live=" + live + " idle=" + idle + " leased=" + leased
+                    + " peakLeased=" + peakLeased + " created=" + created + " leases=" + leases
+                    + " returns=" + returns + " reused=" + reused + " evicted=" + evicted
+                    + " discarded=" + discarded + " waits=" + waits + " avgLeaseWaitMs=" + avgLeaseWaitMs;
+        }
+    }
+
+    // =================== Internals ===================
+
+    private PooledDriver pollIdle(String key) {
+        for (Iterator<PooledDriver> it = idle.iterator(); it.hasNext(); ) {
+            PooledDriver pd = it.next();
+            if (pd.browser.equals(key)) {
+                it.remove();
+                return pd;
+            }
+        }
+        return null;
+    }
+
+    private void releaseSlot() {
+        synchronized (lock) {
+            if (live > 0) live--;
+            lock.notifyAll();
+        }
+    }
+
+    /** Bring a returned browser back to a neutral state. Returns false if it is unusable. */
+    private boolean reset(PooledDriver pd) {
+        WebDriver d = pd.driver;
+        try {
+            // keep only one window
+            List<String> handles = new ArrayList<>(d.getWindowHandles());
+            if (handles.isEmpty()) return false;
+            for (int i = 1; i < handles.size(); i++) {
+                try {
+                    d.switchTo().window(handles.get(i));
+                    d.close();
+                } catch (Exception ignored) {}
+            }
+            d.switchTo().window(handles.get(0));
+
+            d.manage().deleteAllCookies();
+            try {
+                ((org.openqa.selenium.JavascriptExecutor) d).executeScript(
+                        "try{window.localStorage.clear();window.sessionStorage.clear();}catch(e){}");
+            } catch (Exception ignored) {}
+
+            // restore the window size if a scenario changed it (e.g. mobile view)
+            if (pd.initialSize != null && !pd.initialSize.equals(d.manage().window().getSize())) {
+                d.manage().window().maximize();
+            }
+            return true;
+        } catch (Exception e) {
+            System.out.println("[DriverPool] reset failed, discarding browser: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /** Park the browser on the landing page with the cookie banner accepted. Returns false if it is unusable. */
+    private boolean prepare(PooledDriver pd) {
+        String url = landingUrl;
+        if (url == null) return true;
+        try {
+            // park under the default profile: most scenarios start on this page, so it should load light too
+            pd.landedBlocked = ResourcePolicy.apply(pd.driver, Collections.emptyList()) > 0;
+            pd.driver.navigate().to(url);
+            PageLoad.awaitDom(pd.driver, Duration.ofSeconds(30));
+            OverlayDismisser.dismiss(pd.driver);
+            pd.landingUrl = url;
+            pd.landedUrl = pd.driver.getCurrentUrl();
+            return true;
+        } catch (Exception e) {
+            System.out.println("[DriverPool] pre-navigation to " + url + " failed: " + e.getMessage());
+            pd.landedUrl = null;
+            // the browser itself may be fine; only discard it if it stopped responding
+            try {
+                pd.driver.getWindowHandle();
+                return true;
+            } catch (Exception dead) {
+                return false;
+            }
+        }
+    }
+
+    private void evictIdle() {
+        List<PooledDriver> expired = new ArrayList<>();
+        long cutoff = System.nanoTime() - idleTimeout.toNanos();
+        synchronized (lock) {
+            for (Iterator<PooledDriver> it = idle.iterator(); it.hasNext(); ) {
+                PooledDriver pd = it.next();
+                if (pd.lastReturnedAt < cutoff) {
+                    it.remove();
+                    live--;
+                    expired.add(pd);
+                }
+            }
+            if (!expired.isEmpty()) lock.notifyAll();
+        }
+        for (PooledDriver pd : expired) {
+            evicted.incrementAndGet();
+            quietQuit(pd.driver);
+        }
+    }
+
+    private static void quietQuit(WebDriver driver) {
+        try { driver.quit(); } catch (Exception ignored) {}
+    }
+
+    private static String normalize(String browser) {
+        return browser == null || browser.isBlank() ? "chrome" : browser.trim().toLowerCase();
+    }
+
+    private static final class PooledDriver {
+        final String browser;
+        final WebDriver driver;
+        final Dimension initialSize;
+        volatile long lastReturnedAt;
+        volatile String landingUrl;  // landing URL requested when the browser was parked
+        volatile String landedUrl;   // URL it actually ended up on; cleared once a lease uses or leaves it
+        volatile boolean landedBlocked; // parked with ResourcePolicy blocks in place
+
+        PooledDriver(String browser, WebDriver driver) {
+            this.browser = browser;
+            this.driver = driver;
+            Dimension size = null;
+            try { size = driver.manage().window().getSize(); } catch (Exception ignored) {}
+            this.initialSize = size;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package base;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import utils.ConfigService;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-scenario network profile: functional scenarios don't download images, fonts, video or ad/tracker
+ * scripts; scenarios carrying one of resources.keepTags (default @visual) load the full page.
+ *
+ * Blocking is done with the DevTools Network.setBlockedURLs command, so Chrome drops matching requests
+ * itself without a round trip per request. Browsers without DevTools (Firefox) are left alone.
+ * {@link DriverPool} parks idle browsers under the default (blocking) profile, so the landing page a
+ * functional scenario starts on is already light; a keep-everything scenario gets it re-navigated.
+ *
+ * Config keys:
+ *   resources.block      master switch (default true)
+ *   resources.blockTypes image, font, media - expanded to file-extension patterns
+ *   resources.blockUrls  extra URL patterns, '*' wildcard (ad / tracker hosts)
+ *   resources.keepTags   tags that keep everything (default @visual)
+ */
+public final class ResourcePolicy {
+
+    private static final Map<String, List<String>> TYPE_PATTERNS = new LinkedHashMap<>();
+    static {
+        TYPE_PATTERNS.put("image", extensions("png", "jpg", "jpeg", "gif", "webp", "avif", "svg", "ico"));
+        TYPE_PATTERNS.put("font", extensions("woff", "woff2", "ttf", "otf", "eot"));
+        TYPE_PATTERNS.put("media", extensions("mp4", "webm", "m3u8", "ts", "mp3", "m4a"));
+    }
+
+    // "*.jpg" only matches URLs that end in .jpg; "*.jpg?*" catches the cache-busted / resized ones
+    private static List<String> extensions(String... exts) {
+        List<String> out = new ArrayList<>();
+        for (String ext : exts) {
+            out.add("*." + ext);
+            out.add("*." + ext + "?*");
+        }
+        return Collections.unmodifiableList(out);
+    }
+
+    private ResourcePolicy() {}
+
+    /** Apply the profile matching the scenario's tags to the browser. Returns the number of blocked patterns. */
+    public static int apply(WebDriver driver, Collection<String> tags) {
+        if (!(driver instanceof HasCdp)) return 0;
+        List<String> patterns = ConfigService.getBoolean("resources.block", true) && !keepsEverything(tags)
+                ? patterns() : Collections.emptyList();
+        return setBlocked(driver, patterns) ? patterns.size() : 0;
+    }
+
+    static boolean keepsEverything(Collection<String> tags) {
+        if (tags == null) return false;
+        for (String keep : ConfigService.getString("resources.keepTags", "@visual").split("\\s*,\\s*")) {
+            if (keep.isEmpty()) continue;
+            String tag = keep.startsWith("@") ? keep : "@" + keep;
+            for (String t : tags) if (t.equalsIgnoreCase(tag) || t.equalsIgnoreCase(keep)) return true;
+        }
+        return false;
+    }
+
+    static List<String> patterns() {
+        List<String> out = new ArrayList<>();
+        for (String type : ConfigService.getString("resources.blockTypes", "image,font,media").split("\\s*,\\s*")) {
+            if (type.isEmpty()) continue;
+            List<String> p = TYPE_PATTERNS.get(type.toLowerCase());
+            if (p == null) System.out.println("⚠ Unknown resources.blockTypes entry: " + type);
+            else out.addAll(p);
+        }
+        for (String url : ConfigService.getString("resources.blockUrls", "").split("\\s*,\\s*")) {
+            if (!url.isEmpty()) out.add(url);
+        }
+        return out;
+    }
+
+    private static boolean setBlocked(WebDriver driver, List<String> patterns) {
+        try {
+            HasCdp cdp = (HasCdp) driver;
+            cdp.executeCdpCommand("Network.enable", Collections.emptyMap());
+            cdp.executeCdpCommand("Network.setBlockedURLs", Map.of("urls", patterns));
+            return true;
+        } catch (Exception e) {
+            System.out.println("⚠ Could not set blocked resources: " + e.getMessage());
+            return false;
+        }
+    }
+}
@@ -1,16 +1,17 @@
 package pages;
 
 import org.openqa.selenium.*;
-import org.openqa.selenium.interactions.Actions;
+import org.openqa.selenium.support.ui.ExpectedCondition;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.Select;
 import org.openqa.selenium.support.ui.WebDriverWait;
+import utils.OverlayDismisser;
 
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
-public class AmazonHomePage {
+public class AmazonHomePage implements ReadinessProbe {
     private final WebDriver driver;
     private final WebDriverWait wait;
 
@@ -27,6 +28,12 @@ public class AmazonHomePage {
         this.wait = new WebDriverWait(driver, Duration.ofSeconds(10));
     }
 
+    /** Usable once the search box can be typed into. */
+    @Override
+    public ExpectedCondition<?> readiness() {
+        return ExpectedConditions.elementToBeClickable(searchBox);
+    }
+
     public void clearSearch() {
         // Attempt to dismiss overlays before interacting
         try { dismissOverlays(); } catch (Exception ignored) {}
@@ -67,81 +74,9 @@ public class AmazonHomePage {
         wait.until(ExpectedConditions.elementToBeClickable(searchButton)).click();
     }
 
+    /** Best-effort overlay dismissal; one in-page check, no work when the page is clean. */
     public void dismissOverlays() {
-        // best-effort overlay dismissal; safe to call repeatedly
-        try {
-            // 1) Try Continue/Continue shopping-like buttons (broad text match)
-            try {
-                By continueBtn = By.xpath(
-                        "//*[self::button or self::input or self::a][contains(normalize-space(.),'Continue shopping') or contains(normalize-space(.),'Continue Shopping') or contains(normalize-space(.),'Continue') or contains(normalize-space(.),'Shop now')]");
-                List<WebElement> cont = driver.findElements(continueBtn);
-                for (WebElement e : cont) {
-                    try {
-                        if (e.isDisplayed() && e.isEnabled()) {
-                            e.click();
-                            // if clicked, overlay likely gone
-                            return;
-                        }
-                    } catch (StaleElementReferenceException ignored) {}
-                }
-            } catch (Exception ignored) {}
-
-            // 2) Try close buttons / accept buttons (cookies etc.)
-            try {
-                By closeBtn = By.cssSelector("input#sp-cc-accept, input[name='glowDoneButton'], .a-button-close, button[aria-label='Close'], button[aria-label='close']");
-                List<WebElement> closeEls = driver.findElements(closeBtn);
-                for (WebElement e : closeEls) {
-                    try {
-                        if (e.isDisplayed() && e.isEnabled()) {
-                            e.click();
-                        }
-                    } catch (Exception ignored) {}
-                }
-            } catch (Exception ignored) {}
-
-            // 3) Try clicking on common backdrop / overlay nodes
-            try {
-                By backdrop = By.xpath("//div[contains(@class,'overlay') or contains(@class,'modal-backdrop') or contains(@class,'a-popover-overlay') or contains(@class,'sp-landing')]");
-                List<WebElement> backdrops = driver.findElements(backdrop);
-                for (WebElement b : backdrops) {
-                    try {
-                        if (b.isDisplayed()) {
-                            new Actions(driver).moveToElement(b).click().perform();
-                            Thread.sleep(250);
-                        }
-                    } catch (Exception ignored) {}
-                }
-            } catch (Exception ignored) {}
-
-            // 4) Try ESC key on active element (many modals close on ESC)
-            try {
-                new Actions(driver).sendKeys(Keys.ESCAPE).perform();
-                Thread.sleep(250);
-                if (isSearchBoxClickableQuick()) return;
-            } catch (Exception ignored) {}
-
-            // 5) Try a small offset click (click page background)
-            try {
-                new Actions(driver).moveByOffset(5, 5).click().perform();
-                Thread.sleep(200);
-            } catch (Exception ignored) {}
-
-        } catch (Exception e) {
-            // swallow — overlay dismissal is best-effort and should not break tests
-            System.out.println("dismissOverlays exception: " + e.getMessage());
-        }
-    }
-    
-
-    /** quick check whether search box is clickable */
-    private boolean isSearchBoxClickableQuick() {
-        try {
-            WebDriverWait small = new WebDriverWait(driver, Duration.ofSeconds(3));
-            small.until(ExpectedConditions.elementToBeClickable(searchBox));
-            return true;
-        } catch (Exception e) {
-            return false;
-        }
+        OverlayDismisser.dismiss(driver);
     }
 
     public void selectDepartment(String visibleText) {
@@ -1,18 +1,19 @@
 package pages;
 
 import org.openqa.selenium.*;
-import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.ExpectedCondition;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import utils.ElementUtils;
+import utils.MultiLocator;
 
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.time.Duration;
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.List;
 
-public class CheckoutPage {
+public class CheckoutPage implements ReadinessProbe {
     private WebDriver driver;
     private ElementUtils elementUtils;
     private WebDriverWait wait;
@@ -21,6 +22,19 @@ public class CheckoutPage {
     private By placeOrderBtn = By.name("placeYourOrder1");
     private By confirmationMsg = By.cssSelector(".a-box-inner h1");
 
+    private final MultiLocator proceedToCheckout = new MultiLocator("checkout.proceed",
+        By.id("sc-buy-box-ptc-button"),
+        By.id("proceedToCheckout"),
+        By.name("proceedToCheckout"),
+        By.xpath("//input[@name='proceedToRetailCheckout' or @id='proceedToCheckout']"),
+        By.xpath("//a[contains(@href,'/gp/cart/view.html') and " +
+                 "(contains(.,'Proceed to checkout') or contains(.,'Checkout'))]"),
+        By.xpath("//*[self::button or self::a or self::input]" +
+                 "[contains(translate(normalize-space(.),'ABCDEFGHIJKLMNOPQRSTUVWXYZ','abcdefghijklmnopqrstuvwxyz'),'proceed to checkout')]"),
+        By.xpath("//*[self::button or self::a]" +
+                 "[contains(translate(normalize-space(.),'ABCDEFGHIJKLMNOPQRSTUVWXYZ','abcdefghijklmnopqrstuvwxyz'),'place your order')]")
+    ).confirmedByCaller(); // a matching link is only the right one once checkout actually opens
+
     public CheckoutPage(WebDriver driver) {
         this.driver = driver;
         this.elementUtils = new ElementUtils(driver);
@@ -41,42 +55,42 @@ public class CheckoutPage {
 
     // ---------- CHECKOUT ----------
     public void clickProceedToCheckout() {
-        List<By> proceedLocators = Arrays.asList(
-            By.id("sc-buy-box-ptc-button"),
-            By.id("proceedToCheckout"),
-            By.name("proceedToCheckout"),
-            By.xpath("//input[@name='proceedToRetailCheckout' or @id='proceedToCheckout']"),
-            By.xpath("//a[contains(@href,'/gp/cart/view.html') and " +
-                     "(contains(.,'Proceed to checkout') or contains(.,'Checkout'))]"),
-            By.xpath("//*[self::button or self::a or self::input]" +
-                     "[contains(translate(normalize-space(.),'ABCDEFGHIJKLMNOPQRSTUVWXYZ','abcdefghijklmnopqrstuvwxyz'),'proceed to checkout')]"),
-            By.xpath("//*[self::button or self::a]" +
-                     "[contains(translate(normalize-space(.),'ABCDEFGHIJKLMNOPQRSTUVWXYZ','abcdefghijklmnopqrstuvwxyz'),'place your order')]")
-        );
-
-        boolean clicked = false;
-        for (By by : proceedLocators) {
+        // every candidate is re-evaluated on each poll, instead of waiting out each one in turn;
+        // a match whose click doesn't open checkout is a decoy, so fall through to the remaining candidates
+        List<By> rejected = new ArrayList<>();
+        MultiLocator.Match match;
+        while ((match = proceedToCheckout.await(driver, Duration.ofSeconds(25), rejected)) != null) {
+            WebElement el = match.getElement();
+            try {
+                el.click();
+            } catch (ElementClickInterceptedException e) {
+                ((JavascriptExecutor) driver).executeScript("arguments[0].click();", el);
+            }
+            // Wait for checkout page indicators
             try {
-                WebElement el = wait.until(ExpectedConditions.elementToBeClickable(by));
-                try {
-                    el.click();
-                } catch (ElementClickInterceptedException e) {
-                    ((JavascriptExecutor) driver).executeScript("arguments[0].click();", el);
-                }
-                // Wait for checkout page indicators
-                wait.until(d -> d.getCurrentUrl().contains("/gp/buy") ||
-                                d.getCurrentUrl().contains("/checkout") ||
-                                d.getTitle().toLowerCase().contains("checkout") ||
-                                !d.findElements(placeOrderBtn).isEmpty());
-                clicked = true;
-                break;
-            } catch (TimeoutException ignored) {}
+                wait.until(readiness());
+                match.confirm();
+                return;
+            } catch (TimeoutException e) {
+                System.out.println("[CheckoutPage] Clicked " + match + " but checkout did not open; trying the next candidate");
+                match.reject();
+                rejected.add(match.getLocator());
+            }
         }
 
-        if (!clicked) {
-            dumpPage("proceed_to_checkout_failed.html");
-            throw new NoSuchElementException("Proceed to checkout button not found on cart / overlay / PDP.");
-        }
+        dumpPage("proceed_to_checkout_failed.html");
+        throw new NoSuchElementException(rejected.isEmpty()
+                ? "Proceed to checkout button not found on cart / overlay / PDP."
+                : "Checkout did not open after clicking any of " + rejected);
+    }
+
+    /** Usable once the browser is on a checkout URL / title or the place-order button exists. */
+    @Override
+    public ExpectedCondition<Boolean> readiness() {
+        return d -> d.getCurrentUrl().contains("/gp/buy") ||
+                    d.getCurrentUrl().contains("/checkout") ||
+                    d.getTitle().toLowerCase().contains("checkout") ||
+                    !d.findElements(placeOrderBtn).isEmpty();
     }
 
     // ---------- ORDER REVIEW & CONFIRM ----------
@@ -1,18 +1,24 @@
 package pages;
 
 import org.openqa.selenium.*;
-import org.openqa.selenium.interactions.Actions;
+import org.openqa.selenium.support.ui.ExpectedCondition;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import utils.ConfigReader;
+import utils.ConfigService;
+import utils.MultiLocator;
+import utils.OverlayDismisser;
+import utils.PageLoad;
 
 import java.time.Duration;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
-public class LoginPage {
+public class LoginPage implements ReadinessProbe {
 
     private final WebDriver driver;
     private final WebDriverWait wait;
+    private final Duration explicitWait;
 
     // --------- URLs ---------
     private final String loginUrl = ConfigReader.getProperty(
@@ -43,40 +49,52 @@ public class LoginPage {
             ".a-box.a-alert .a-alert-content," +                   // any alert content
             ".a-alert-content"                                     // generic fallback
     );
+    // same alert containers as errorBoxes, one candidate each so the locator cache learns which one Amazon serves
+    private final MultiLocator errorMessage = new MultiLocator("login.errorMessage",
+            By.cssSelector("#auth-error-message-box .a-alert-content"),
+            By.cssSelector("#auth-error-message-box .a-list-item"),
+            By.cssSelector("#auth-warning-message-box .a-alert-content"),
+            By.cssSelector("#auth-info-message-box .a-alert-content"),
+            By.cssSelector("#auth-email-missing-alert .a-alert-content"),
+            By.cssSelector("#auth-password-missing-alert .a-alert-content"),
+            By.cssSelector(".a-box.a-alert .a-alert-content"),
+            By.cssSelector(".a-alert-content")
+    );
+    private final MultiLocator identifierField = new MultiLocator("login.identifier",
+            By.id("ap_email"),
+            By.id("ap_email_login")
+    );
     private final By errorHeadings = By.cssSelector(
             "#auth-error-message-box .a-alert-heading," +
             "#auth-warning-message-box .a-alert-heading," +
             "#auth-info-message-box .a-alert-heading"
     );
 
-    // --------- Misc ---------
-    private final By cookieAccept = By.cssSelector("#sp-cc-accept, input[name='accept'], button[name='accept']");
-
     public LoginPage(WebDriver driver) {
         this.driver = driver;
-        int explicit = Integer.parseInt(ConfigReader.getProperty("explicitWait", "25"));
-        this.wait = new WebDriverWait(driver, Duration.ofSeconds(explicit));
+        this.explicitWait = ConfigService.getDuration("explicitWait", ChronoUnit.SECONDS, Duration.ofSeconds(25));
+        this.wait = new WebDriverWait(driver, explicitWait);
     }
 
     // --------- Core Methods ---------
     public void openSignInPage() {
-        driver.navigate().to(loginUrl);
+        // returns once the DOM is parsed; the sign-in form doesn't depend on the rest of the page
+        PageLoad.navigate(driver, loginUrl, d -> PageLoad.domReady(d));
 
-        // try cookie accept first (you already had this)
-        try {
-            new WebDriverWait(driver, Duration.ofSeconds(5))
-                    .until(ExpectedConditions.elementToBeClickable(cookieAccept)).click();
-        } catch (Exception ignored) {}
+        // cookie banner, "Continue shopping" interstitial and similar, in one in-page check
+        dismissOverlays();
 
-        // Minimal overlay dismissal to handle the "Continue shopping" interstitial and similar
-        try { dismissOverlays(); } catch (Exception ignored) {}
+        wait.until(readiness());
+    }
 
-        // existing wait for the key sign-in elements (unchanged logic)
-        wait.until(ExpectedConditions.or(
+    /** Usable once the identifier, password or "create account" control is visible. */
+    @Override
+    public ExpectedCondition<Boolean> readiness() {
+        return ExpectedConditions.or(
                 ExpectedConditions.visibilityOfElementLocated(identifierInput),
                 ExpectedConditions.visibilityOfElementLocated(passwordInput),
                 ExpectedConditions.visibilityOfElementLocated(proceedCreateAccountBtn)
-        ));
+        );
     }
 
     public boolean isOnSignInPage() {
@@ -87,7 +105,10 @@ public class LoginPage {
 
     /** Type mobile/email. */
     public void enterIdentifier(String mobileOrEmail) {
-        WebElement box = wait.until(ExpectedConditions.visibilityOfElementLocated(identifierInput));
+        // await already polls every candidate for explicitWait; a miss doesn't wait a second time
+        MultiLocator.Match match = identifierField.await(driver, explicitWait);
+        if (match == null) throw new NoSuchElementException("Identifier field not found within " + explicitWait + ": " + identifierField);
+        WebElement box = match.getElement();
         box.clear();
         box.sendKeys(mobileOrEmail);
     }
@@ -176,9 +197,8 @@ public class LoginPage {
     public String getErrorMessage() {
         // 1) try content items
         try {
-            String msg = new WebDriverWait(driver, Duration.ofSeconds(6))
-                    .until(ExpectedConditions.visibilityOfElementLocated(errorBoxes))
-                    .getText().trim();
+            MultiLocator.Match match = errorMessage.await(driver, Duration.ofSeconds(6));
+            String msg = match == null ? "" : match.getState().getText().trim();
             if (!msg.isBlank()) return msg;
         } catch (Exception ignored) {}
 
@@ -211,43 +231,7 @@ public class LoginPage {
      * Safe to call repeatedly; does not throw on failure.
      */
     private void dismissOverlays() {
-        try {
-            // 1) Try any Continue/Continue shopping-like visible button (broad text match)
-            try {
-                By cont = By.xpath(
-                    "//*[self::button or self::input or self::a][contains(normalize-space(.),'Continue shopping') or contains(normalize-space(.),'Continue Shopping') or contains(normalize-space(.),'Continue') or contains(normalize-space(.),'Shop now')]");
-                for (WebElement e : driver.findElements(cont)) {
-                    try {
-                        if (e.isDisplayed() && e.isEnabled()) { e.click(); Thread.sleep(300); return; }
-                    } catch (StaleElementReferenceException ignored) {}
-                }
-            } catch (Exception ignored) {}
-
-            // 2) Try known accept/close selectors (cookies/modals)
-            try {
-                By closeBtn = By.cssSelector("#sp-cc-accept, input[name='glowDoneButton'], .a-button-close, button[aria-label='Close'], button[aria-label='close']");
-                for (WebElement e : driver.findElements(closeBtn)) {
-                    try { if (e.isDisplayed() && e.isEnabled()) e.click(); } catch (Exception ignored) {}
-                }
-            } catch (Exception ignored) {}
-
-            // 3) Try clicking backdrop / overlay elements
-            try {
-                By backdrop = By.xpath("//div[contains(@class,'overlay') or contains(@class,'modal-backdrop') or contains(@class,'a-popover-overlay') or contains(@class,'sp-landing')]");
-                for (WebElement b : driver.findElements(backdrop)) {
-                    try { if (b.isDisplayed()) { new Actions(driver).moveToElement(b).click().perform(); Thread.sleep(200); } } catch (Exception ignored) {}
-                }
-            } catch (Exception ignored) {}
-
-            // 4) Try ESC key
-            try { new Actions(driver).sendKeys(Keys.ESCAPE).perform(); Thread.sleep(200); } catch (Exception ignored) {}
-
-            // 5) Fallback tiny offset click on page background
-            try { new Actions(driver).moveByOffset(5, 5).click().perform(); Thread.sleep(150); } catch (Exception ignored) {}
-
-        } catch (Exception e) {
-            System.out.println("dismissOverlays (login) exception: " + e.getMessage());
-        }
+        OverlayDismisser.dismiss(driver);
     }
 
     /** Quick visibility check used internally; non-failing. */
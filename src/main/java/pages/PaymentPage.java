@@ -4,8 +4,11 @@ import org.openqa.selenium.*;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import utils.ElementUtils;
+import utils.ElementUtils.ElementState;
+import utils.MultiLocator;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -23,7 +26,7 @@ public class PaymentPage {
     }
 
     // --- locators used by the class ---
-    private List<By> deliverButtonCandidates = Arrays.asList(
+    private final MultiLocator deliverButton = new MultiLocator("payment.deliverButton",
             By.xpath("//button[contains(translate(.,'ABCDEFGHIJKLMNOPQRSTUVWXYZ','abcdefghijklmnopqrstuvwxyz'),'deliver to this address')]"),
             By.xpath("//a[contains(translate(.,'ABCDEFGHIJKLMNOPQRSTUVWXYZ','abcdefghijklmnopqrstuvwxyz'),'deliver to this address')]"),
             By.xpath("//button[contains(translate(.,'ABCDEFGHIJKLMNOPQRSTUVWXYZ','abcdefghijklmnopqrstuvwxyz'),'deliver to this')]"),
@@ -32,7 +35,7 @@ public class PaymentPage {
             By.xpath("//a[contains(.,'Deliver to this address')]")
     );
 
-    private List<By> addAddressCandidates = Arrays.asList(
+    private final MultiLocator addAddressButton = new MultiLocator("payment.addAddressButton",
             By.xpath("//button[contains(translate(.,'ABCDEFGHIJKLMNOPQRSTUVWXYZ','abcdefghijklmnopqrstuvwxyz'),'add a new delivery address')]"),
             By.xpath("//a[contains(translate(.,'ABCDEFGHIJKLMNOPQRSTUVWXYZ','abcdefghijklmnopqrstuvwxyz'),'add a new delivery address')]"),
             By.xpath("//button[contains(translate(.,'ABCDEFGHIJKLMNOPQRSTUVWXYZ','abcdefghijklmnopqrstuvwxyz'),'add a new address')]"),
@@ -45,7 +48,7 @@ public class PaymentPage {
             By.xpath("//h2[contains(translate(.,'ABCDEFGHIJKLMNOPQRSTUVWXYZ','abcdefghijklmnopqrstuvwxyz'),'payment method')]")
     );
 
-    private List<By> creditCardLocators = Arrays.asList(
+    private final MultiLocator creditCardOption = new MultiLocator("payment.creditCardOption",
             By.xpath("//input[@value='creditCard']"),
             By.xpath("//input[contains(translate(@value,'ABCDEFGHIJKLMNOPQRSTUVWXYZ','abcdefghijklmnopqrstuvwxyz'),'credit')]"),
             By.xpath("//input[contains(translate(@value,'ABCDEFGHIJKLMNOPQRSTUVWXYZ','abcdefghijklmnopqrstuvwxyz'),'card')]"),
@@ -54,6 +57,20 @@ public class PaymentPage {
             By.xpath("//input[@aria-label and contains(translate(@aria-label,'ABCDEFGHIJKLMNOPQRSTUVWXYZ','abcdefghijklmnopqrstuvwxyz'),'card')]")
     );
 
+    private final MultiLocator cardNumberInput = new MultiLocator("payment.cardNumberInput",
+            By.id("addCreditCardNumber"),
+            By.name("addCreditCardNumber"),
+            By.xpath("//input[contains(translate(@id,'ABCDEFGHIJKLMNOPQRSTUVWXYZ','abcdefghijklmnopqrstuvwxyz'),'card') and (contains(translate(@id,'ABCDEFGHIJKLMNOPQRSTUVWXYZ','abcdefghijklmnopqrstuvwxyz'),'number') or contains(translate(@name,'ABCDEFGHIJKLMNOPQRSTUVWXYZ','abcdefghijklmnopqrstuvwxyz'),'number'))]"),
+            By.xpath("//input[@placeholder and contains(translate(@placeholder,'ABCDEFGHIJKLMNOPQRSTUVWXYZ','abcdefghijklmnopqrstuvwxyz'),'card')]"),
+            By.cssSelector("input[type='tel']"),
+            By.xpath("//input[contains(translate(@aria-label,'ABCDEFGHIJKLMNOPQRSTUVWXYZ','abcdefghijklmnopqrstuvwxyz'),'card number')]")
+    );
+
+    private final MultiLocator addCardButton = new MultiLocator("payment.addCardButton",
+            By.xpath("//input[@type='submit' and (contains(translate(@value,'ABCDEFGHIJKLMNOPQRSTUVWXYZ','abcdefghijklmnopqrstuvwxyz'),'add') or contains(translate(@value,'ABCDEFGHIJKLMNOPQRSTUVWXYZ','abcdefghijklmnopqrstuvwxyz'),'use this card') or contains(translate(@value,'ABCDEFGHIJKLMNOPQRSTUVWXYZ','abcdefghijklmnopqrstuvwxyz'),'continue'))]"),
+            By.xpath("//button[contains(translate(.,'ABCDEFGHIJKLMNOPQRSTUVWXYZ','abcdefghijklmnopqrstuvwxyz'),'add card') or contains(translate(.,'ABCDEFGHIJKLMNOPQRSTUVWXYZ','abcdefghijklmnopqrstuvwxyz'),'use this card') or contains(translate(.,'ABCDEFGHIJKLMNOPQRSTUVWXYZ','abcdefghijklmnopqrstuvwxyz'),'continue')]")
+    );
+
     private List<By> paymentErrorLocators = Arrays.asList(
             By.cssSelector(".a-alert-content"),
             By.xpath("//*[contains(translate(text(),'ABCDEFGHIJKLMNOPQRSTUVWXYZ','abcdefghijklmnopqrstuvwxyz'),'card declined')]"),
@@ -68,35 +85,27 @@ public class PaymentPage {
     public void ensureDeliveryAddressSelected() {
         System.out.println("[PaymentPage] ensureDeliveryAddressSelected: checking for deliver/add address buttons...");
 
-        // Try deliver button candidates
-        for (By by : deliverButtonCandidates) {
+        // Try deliver button candidates (all probed in one round trip)
+        MultiLocator.Match deliver = deliverButton.find(driver);
+        if (deliver != null) {
             try {
-                List<WebElement> els = driver.findElements(by);
-                for (WebElement el : els) {
-                    if (el != null && el.isDisplayed()) {
-                        safeClick(el);
-                        System.out.println("[PaymentPage] Clicked deliver button using: " + by);
-                        waitForPaymentSectionToLoad();
-                        return;
-                    }
-                }
+                safeClick(deliver.getElement());
+                System.out.println("[PaymentPage] Clicked deliver button using: " + deliver.getLocator());
+                waitForPaymentSectionToLoad();
+                return;
             } catch (Exception ignored) {}
         }
 
         // If no deliver button, try Add a new delivery address (only useful if test is prepared to fill address)
-        for (By by : addAddressCandidates) {
+        MultiLocator.Match addAddress = addAddressButton.find(driver);
+        if (addAddress != null) {
             try {
-                List<WebElement> els = driver.findElements(by);
-                for (WebElement el : els) {
-                    if (el != null && el.isDisplayed()) {
-                        System.out.println("[PaymentPage] Clicked 'Add delivery address' using: " + by);
-                        safeClick(el);
-                        // If you click add address, you normally need to fill address fields; we wait a bit
-                        try { Thread.sleep(2000); } catch (InterruptedException ignored) {}
-                        waitForPaymentSectionToLoad();
-                        return;
-                    }
-                }
+                System.out.println("[PaymentPage] Clicked 'Add delivery address' using: " + addAddress.getLocator());
+                safeClick(addAddress.getElement());
+                // If you click add address, you normally need to fill address fields; the next wait is on
+                // concrete payment-section signals, so there is nothing to settle here
+                waitForPaymentSectionToLoad();
+                return;
             } catch (Exception ignored) {}
         }
 
@@ -110,29 +119,12 @@ public class PaymentPage {
         try {
             // Wait for either the payment panel header or any common credit card input to appear
             WebDriverWait shortWait = new WebDriverWait(driver, Duration.ofSeconds(10));
-            shortWait.until(driver -> {
-                // payment panel header visible?
-                for (By by : paymentPanelLocators) {
-                    try {
-                        List<WebElement> els = driver.findElements(by);
-                        for (WebElement e : els) {
-                            if (e.isDisplayed()) return true;
-                        }
-                    } catch (Exception ignored) {}
-                }
-                // or any known card input present?
-                for (By by : creditCardLocators) {
-                    try {
-                        List<WebElement> els = driver.findElements(by);
-                        for (WebElement e : els) {
-                            if (e.isDisplayed()) return true;
-                        }
-                    } catch (Exception ignored) {}
-                }
-                return false;
-            });
-            // small buffer
-            try { Thread.sleep(600); } catch (InterruptedException ignored) {}
+            List<By> sectionSignals = new ArrayList<>(paymentPanelLocators);
+            sectionSignals.addAll(creditCardOption.getCandidates());
+            // payment panel header or any known card input visible? (one round trip per poll)
+            shortWait.until(driver -> elementUtils.firstVisibleState(sectionSignals) != null);
+            // card widgets are injected after the header: wait for one of them (returns at once if already there)
+            creditCardOption.await(driver, Duration.ofSeconds(3));
         } catch (Exception e) {
             System.out.println("[PaymentPage] waitForPaymentSectionToLoad: timed out waiting for payment section. " +
                     "Payment UI may still be hidden until address selection is complete or until bank iframe loads.");
@@ -160,16 +152,12 @@ public class PaymentPage {
 
         if (method.equalsIgnoreCase("Credit Card") || method.equalsIgnoreCase("Card")) {
             // Try locating in top-level DOM
-            for (By by : creditCardLocators) {
+            MultiLocator.Match card = creditCardOption.find(driver);
+            if (card != null) {
                 try {
-                    List<WebElement> els = driver.findElements(by);
-                    for (WebElement el : els) {
-                        if (el != null && el.isDisplayed()) {
-                            safeClick(el);
-                            System.out.println("[PaymentPage] clicked credit-card using locator: " + by);
-                            return true;
-                        }
-                    }
+                    safeClick(card.getElement());
+                    System.out.println("[PaymentPage] clicked credit-card using locator: " + card.getLocator());
+                    return true;
                 } catch (Exception ignored) {}
             }
 
@@ -179,18 +167,12 @@ public class PaymentPage {
             for (WebElement iframe : iframes) {
                 try {
                     driver.switchTo().frame(iframe);
-                    for (By by : creditCardLocators) {
-                        try {
-                            List<WebElement> els = driver.findElements(by);
-                            for (WebElement el : els) {
-                                if (el != null && el.isDisplayed()) {
-                                    safeClick(el);
-                                    System.out.println("[PaymentPage] clicked credit-card inside iframe using locator: " + by);
-                                    driver.switchTo().defaultContent();
-                                    return true;
-                                }
-                            }
-                        } catch (Exception ignored) {}
+                    MultiLocator.Match inFrame = creditCardOption.find(driver);
+                    if (inFrame != null) {
+                        safeClick(inFrame.getElement());
+                        System.out.println("[PaymentPage] clicked credit-card inside iframe using locator: " + inFrame.getLocator());
+                        driver.switchTo().defaultContent();
+                        return true;
                     }
                 } catch (Exception fr) {
                     // ignore frame switching errors
@@ -235,55 +217,21 @@ public class PaymentPage {
 
         System.out.println("[PaymentPage] selectInvalidPayment: filling invalid CC values");
 
-        List<By> cardNumberCandidates = Arrays.asList(
-                By.id("addCreditCardNumber"),
-                By.name("addCreditCardNumber"),
-                By.xpath("//input[contains(translate(@id,'ABCDEFGHIJKLMNOPQRSTUVWXYZ','abcdefghijklmnopqrstuvwxyz'),'card') and (contains(translate(@id,'ABCDEFGHIJKLMNOPQRSTUVWXYZ','abcdefghijklmnopqrstuvwxyz'),'number') or contains(translate(@name,'ABCDEFGHIJKLMNOPQRSTUVWXYZ','abcdefghijklmnopqrstuvwxyz'),'number'))]"),
-                By.xpath("//input[@placeholder and contains(translate(@placeholder,'ABCDEFGHIJKLMNOPQRSTUVWXYZ','abcdefghijklmnopqrstuvwxyz'),'card')]"),
-                By.cssSelector("input[type='tel']"),
-                By.xpath("//input[contains(translate(@aria-label,'ABCDEFGHIJKLMNOPQRSTUVWXYZ','abcdefghijklmnopqrstuvwxyz'),'card number')]")
-        );
-
         boolean filledCard = false;
 
-        // Try top-level DOM first
-        for (By by : cardNumberCandidates) {
-            try {
-                List<WebElement> els = driver.findElements(by);
-                for (WebElement el : els) {
-                    if (el != null && el.isDisplayed()) {
-                        el.clear();
-                        el.sendKeys("1234567890123456");
-                        System.out.println("[PaymentPage] filled card number using: " + by);
-                        filledCard = true;
-                        break;
-                    }
-                }
-                if (filledCard) break;
-            } catch (Exception ignored) {}
+        // Try top-level DOM first, then each iframe (one round trip per document)
+        MultiLocator.Match cardNumber = cardNumberInput.find(driver);
+        if (cardNumber != null) {
+            filledCard = typeCardNumber(cardNumber, "");
         }
 
-        // Try inside iframes if not filled
         if (!filledCard) {
             List<WebElement> iframes = driver.findElements(By.tagName("iframe"));
             for (WebElement iframe : iframes) {
                 try {
                     driver.switchTo().frame(iframe);
-                    for (By by : cardNumberCandidates) {
-                        try {
-                            List<WebElement> els = driver.findElements(by);
-                            for (WebElement el : els) {
-                                if (el != null && el.isDisplayed()) {
-                                    el.clear();
-                                    el.sendKeys("1234567890123456");
-                                    System.out.println("[PaymentPage] filled card number inside iframe using: " + by);
-                                    filledCard = true;
-                                    break;
-                                }
-                            }
-                            if (filledCard) break;
-                        } catch (Exception ignored) {}
-                    }
+                    MultiLocator.Match inFrame = cardNumberInput.find(driver);
+                    if (inFrame != null) filledCard = typeCardNumber(inFrame, " inside iframe");
                 } catch (Exception fr) {
                     // ignore
                 } finally {
@@ -298,28 +246,30 @@ public class PaymentPage {
         trySendKeysIfPresent(By.id("ppw-expirationDate_year"), "2000");
         trySendKeysIfPresent(By.id("addCreditCardVerificationNumber"), "000");
 
-        // Click any Add/Use/Continue button if present
-        List<By> addCardButtons = Arrays.asList(
-                By.xpath("//input[@type='submit' and (contains(translate(@value,'ABCDEFGHIJKLMNOPQRSTUVWXYZ','abcdefghijklmnopqrstuvwxyz'),'add') or contains(translate(@value,'ABCDEFGHIJKLMNOPQRSTUVWXYZ','abcdefghijklmnopqrstuvwxyz'),'use this card') or contains(translate(@value,'ABCDEFGHIJKLMNOPQRSTUVWXYZ','abcdefghijklmnopqrstuvwxyz'),'continue'))]"),
-                By.xpath("//button[contains(translate(.,'ABCDEFGHIJKLMNOPQRSTUVWXYZ','abcdefghijklmnopqrstuvwxyz'),'add card') or contains(translate(.,'ABCDEFGHIJKLMNOPQRSTUVWXYZ','abcdefghijklmnopqrstuvwxyz'),'use this card') or contains(translate(.,'ABCDEFGHIJKLMNOPQRSTUVWXYZ','abcdefghijklmnopqrstuvwxyz'),'continue')]")
-        );
-
-        for (By by : addCardButtons) {
+        // Click the Add/Use/Continue button if present
+        MultiLocator.Match addCard = addCardButton.find(driver);
+        if (addCard != null) {
             try {
-                List<WebElement> btns = driver.findElements(by);
-                for (WebElement btn : btns) {
-                    if (btn != null && btn.isDisplayed()) {
-                        safeClick(btn);
-                        System.out.println("[PaymentPage] clicked Add/Use/Continue button: " + by);
-                        break;
-                    }
-                }
+                safeClick(addCard.getElement());
+                System.out.println("[PaymentPage] clicked Add/Use/Continue button: " + addCard.getLocator());
             } catch (Exception ignored) {}
         }
 
         return filledCard;
     }
 
+    private boolean typeCardNumber(MultiLocator.Match match, String where) {
+        try {
+            WebElement el = match.getElement();
+            el.clear();
+            el.sendKeys("1234567890123456");
+            System.out.println("[PaymentPage] filled card number" + where + " using: " + match.getLocator());
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
     private void trySendKeysIfPresent(By by, String value) {
         try {
             List<WebElement> els = driver.findElements(by);
@@ -338,20 +288,15 @@ public class PaymentPage {
     // 4) Detect payment failure message heuristically
     // --------------------
     public boolean isPaymentFailed() {
-        for (By by : paymentErrorLocators) {
-            try {
-                List<WebElement> els = driver.findElements(by);
-                for (WebElement e : els) {
-                    String txt = e.getText();
-                    if (txt != null && !txt.trim().isEmpty()) {
-                        String lower = txt.toLowerCase();
-                        if (lower.contains("invalid") || lower.contains("declined") || lower.contains("failed") || lower.contains("error") || lower.contains("try again")) {
-                            System.out.println("[PaymentPage] Found error text: " + txt);
-                            return true;
-                        }
-                    }
+        // all error candidates and their visible texts in one round trip
+        for (ElementState state : elementUtils.snapshot(paymentErrorLocators)) {
+            for (String txt : state.getVisibleTexts()) {
+                String lower = txt.toLowerCase();
+                if (lower.contains("invalid") || lower.contains("declined") || lower.contains("failed") || lower.contains("error") || lower.contains("try again")) {
+                    System.out.println("[PaymentPage] Found error text: " + txt);
+                    return true;
                 }
-            } catch (Exception ignored) {}
+            }
         }
 
         // Fallback: search body for keywords
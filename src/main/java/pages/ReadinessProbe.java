@@ -0,0 +1,11 @@
+package pages;
+
+import org.openqa.selenium.support.ui.ExpectedCondition;
+
+/**
+ * A page object's definition of "usable": the few elements its steps need, not the whole page.
+ * {@link utils.PageLoad#navigate} returns as soon as it holds on the newly loaded document.
+ */
+public interface ReadinessProbe {
+    ExpectedCondition<?> readiness();
+}
@@ -5,8 +5,16 @@ import org.openqa.selenium.interactions.Actions;
 import org.openqa.selenium.support.ui.*;
 import org.testng.SkipException;
 import utils.ConfigReader;
+import utils.ConfigService;
+import utils.ElementUtils;
+import utils.ElementUtils.ElementState;
+import utils.MultiLocator;
+import utils.OverlayDismisser;
+import utils.PageLoad;
 
 import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
@@ -19,6 +27,7 @@ public class RegistrationPage {
     private final WebDriver driver;
     private final WebDriverWait wait;
     private final Actions actions;
+    private final ElementUtils elements;
 
     // -------- URLs (from config with defaults) --------
     private final String regUrl = ConfigReader.getProperty(
@@ -30,29 +39,24 @@ public class RegistrationPage {
     private final By continueCreate        = By.id("continue");
 
     // Field variants (Amazon may render phone OR email)
-    private final List<By> phoneOrEmailFields = Arrays.asList(
+    private final MultiLocator phoneOrEmailFields = new MultiLocator("register.phoneOrEmail",
             By.id("ap_phone_number"),
             By.id("ap_email"),
             By.name("email"),
             By.cssSelector("input[type='tel'][id*='phone']"),
             By.cssSelector("input[name='email']")
     );
-    private final List<By> nameFields = Arrays.asList(
+    private final MultiLocator nameFields = new MultiLocator("register.name",
             By.id("ap_customer_name"),
             By.name("customerName")
     );
-    private final List<By> passwordFields = Arrays.asList(
+    private final MultiLocator passwordFields = new MultiLocator("register.password",
             By.id("ap_password"),
             By.name("password"),
             By.cssSelector("input[type='password'][id*='password']")
     );
 
-    // Cookie / overlays / captcha
-    private final List<By> cookieAccepts = Arrays.asList(
-            By.id("sp-cc-accept"),
-            By.cssSelector("input[name='accept']"),
-            By.cssSelector("button[name='accept']")
-    );
+    // Captcha (cookie banner / overlays are handled by OverlayDismisser)
     private final List<By> captchaSignals = Arrays.asList(
             By.id("auth-captcha-guess"),
             By.cssSelector("img[alt*='captcha']"),
@@ -60,7 +64,7 @@ public class RegistrationPage {
     );
 
     // OTP page signals
-    private final List<By> otpSignals = Arrays.asList(
+    private final MultiLocator otpSignals = new MultiLocator("register.otpSignal",
             By.id("cvf-input-code"),
             By.name("code"),
             By.cssSelector("[data-csa-c-slot-id*='cvf']"),
@@ -78,14 +82,14 @@ public class RegistrationPage {
             By.id("auth-password-missing-alert")
     );
 
-    private final boolean skipOnCaptcha = Boolean.parseBoolean(
-            ConfigReader.getProperty("skipOnCaptcha", "true"));
+    private final boolean skipOnCaptcha = ConfigService.getBoolean("skipOnCaptcha", true);
 
     public RegistrationPage(WebDriver driver) {
         this.driver = driver;
-        int explicit = Integer.parseInt(ConfigReader.getProperty("explicitWait", "25"));
-        this.wait = new WebDriverWait(driver, Duration.ofSeconds(explicit));
+        this.wait = new WebDriverWait(driver,
+                ConfigService.getDuration("explicitWait", ChronoUnit.SECONDS, Duration.ofSeconds(25)));
         this.actions = new Actions(driver);
+        this.elements = new ElementUtils(driver);
     }
 
     // =================== Navigation ===================
@@ -273,8 +277,10 @@ public class RegistrationPage {
     }
 
     public boolean hasValidationMessages() {
-        for (By by : validationBlocks) if (!driver.findElements(by).isEmpty()) return true;
-        return !driver.findElements(By.cssSelector(".a-color-error, .auth-inlined-error")).isEmpty();
+        List<By> signals = new ArrayList<>(validationBlocks);
+        signals.add(By.cssSelector(".a-color-error, .auth-inlined-error"));
+        for (ElementState state : elements.snapshot(signals)) if (state.isPresent()) return true;
+        return false;
     }
 
     // =================== Utilities ===================
@@ -328,9 +334,9 @@ public class RegistrationPage {
         try { return el.getAttribute(name); } catch (Exception e) { return null; }
     }
 
+    // DOM parsed is enough for the form; "complete" would wait for every ad under pageLoadStrategy=eager
     private void waitForReady() {
-        new WebDriverWait(driver, Duration.ofSeconds(30)).until(d ->
-                "complete".equals(js("return document.readyState")));
+        PageLoad.awaitDom(driver, Duration.ofSeconds(30));
     }
 
     private void clickIfClickable(By by, int seconds) {
@@ -343,82 +349,26 @@ public class RegistrationPage {
     }
 
     private boolean isAnyPresent(List<By> locators) {
-        for (By by : locators) if (isPresent(by)) return true;
+        for (ElementState state : elements.snapshot(locators)) if (state.isPresent()) return true;
         return false;
     }
 
-    private WebElement firstVisible(List<By> locators) {
-        for (By by : locators) {
-            List<WebElement> els = driver.findElements(by);
-            for (WebElement el : els) {
-                try { if (el.isDisplayed()) return el; } catch (StaleElementReferenceException ignored) {}
-            }
-        }
-        return null;
+    /** First visible, enabled match across all candidates (one round trip), or null. */
+    private WebElement firstVisible(MultiLocator locator) {
+        MultiLocator.Match match = locator.find(driver);
+        return match == null ? null : match.getElement();
     }
 
     private void acceptCookiesIfPresent() {
-        for (By by : cookieAccepts) {
-            try {
-                WebElement btn = new WebDriverWait(driver, Duration.ofSeconds(5))
-                        .until(ExpectedConditions.elementToBeClickable(by));
-                btn.click();
-                return;
-            } catch (Exception ignored) {}
-        }
+        OverlayDismisser.dismiss(driver);
     }
 
     /**
      * Handle the "Click the button below to continue shopping" interstitial that Amazon sometimes serves.
-     * Safe best-effort: will click the "Continue shopping" CTA if present.
+     * Safe best-effort: clicks the "Continue shopping" CTA if present and waits for the next page.
      */
     private void handleContinueShoppingInterstitialIfPresent() {
-        try {
-            // Wait briefly for the specific message / button to appear
-            WebDriverWait shortWait = new WebDriverWait(driver, Duration.ofSeconds(5));
-            boolean hasMessage = driver.getPageSource().toLowerCase().contains("click the button below to continue shopping");
-            if (hasMessage) {
-                List<By> continueBtns = Arrays.asList(
-                        By.xpath("//button[contains(.,'Continue shopping')]"),
-                        By.xpath("//input[@value='Continue shopping']"),
-                        By.cssSelector("button.a-button-input"),
-                        By.cssSelector("button")
-                );
-
-                for (By by : continueBtns) {
-                    try {
-                        WebElement btn = shortWait.until(ExpectedConditions.elementToBeClickable(by));
-                        String text = "";
-                        try { text = btn.getText(); } catch (Exception ignore) {}
-                        if ((text != null && text.trim().toLowerCase().contains("continue shopping"))
-                                || text == null || text.isBlank()) {
-                            safeClick(btn);
-                            waitForReady();
-                            return;
-                        }
-                    } catch (Exception ignored) {}
-                }
-
-                // Last resort: click the first visible enabled button
-                try {
-                    List<WebElement> buttons = driver.findElements(By.tagName("button"));
-                    for (WebElement b : buttons) {
-                        try {
-                            if (b.isDisplayed() && b.isEnabled()) {
-                                String t = b.getText() == null ? "" : b.getText().toLowerCase();
-                                if (t.contains("continue") || t.contains("continue shopping") || t.length() < 40) {
-                                    safeClick(b);
-                                    waitForReady();
-                                    return;
-                                }
-                            }
-                        } catch (Exception ignored) {}
-                    }
-                } catch (Exception ignored) {}
-            }
-        } catch (Exception ignored) {
-            // ignore if not present
-        }
+        OverlayDismisser.dismiss(driver);
     }
 
     private void handleCaptcha() {
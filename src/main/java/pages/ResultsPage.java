@@ -7,8 +7,9 @@ import org.openqa.selenium.support.ui.WebDriverWait;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
-public class ResultsPage {
+public class ResultsPage implements ReadinessProbe {
     private final WebDriver driver;
 
     private final By resultCards = By.cssSelector("div.s-main-slot [data-component-type='s-search-result']");
@@ -30,12 +31,16 @@ public class ResultsPage {
 
     public ResultsPage(WebDriver driver) { this.driver = driver; }
 
-    public void waitUntilResultsOrMessage(Duration timeout) {
-        new WebDriverWait(driver, timeout).until((ExpectedCondition<Boolean>) d ->
-            !d.findElements(resultCards).isEmpty()
+    /** Usable once the first result card or a no-results / did-you-mean message is in the DOM. */
+    @Override
+    public ExpectedCondition<Boolean> readiness() {
+        return d -> !d.findElements(resultCards).isEmpty()
             || !d.findElements(noResultsMessage).isEmpty()
-            || !d.findElements(showingResultsForMessage).isEmpty()
-        );
+            || !d.findElements(showingResultsForMessage).isEmpty();
+    }
+
+    public void waitUntilResultsOrMessage(Duration timeout) {
+        new WebDriverWait(driver, timeout).until(readiness());
     }
 
     public int resultsCount() { return driver.findElements(resultCards).size(); }
@@ -66,26 +71,60 @@ public class ResultsPage {
     public String title() { return driver.getTitle(); }
     public String url() { return driver.getCurrentUrl(); }
 
-    public String firstResultTitle() {
-        List<WebElement> cards = driver.findElements(resultCards);
-        if (cards.isEmpty()) return "";
+    // Extracts every result card in one round trip; arguments[0] = max cards (-1 = all)
+    private static final String EXTRACT_RESULTS_SCRIPT =
+        "var cards = document.querySelectorAll(\"div.s-main-slot [data-component-type='s-search-result']\")," +
+        "    limit = arguments[0] < 0 ? cards.length : Math.min(arguments[0], cards.length), out = [];" +
+        "function txt(root, sel) { var e = root.querySelector(sel); return e ? (e.innerText || e.textContent || '').trim() : null; }" +
+        "for (var i = 0; i < limit; i++) {" +
+        "  var c = cards[i], h2 = c.querySelector('h2');" +
+        "  var a = c.querySelector('h2 a') || (h2 && h2.closest('a')) || c.querySelector(\"a.a-link-normal[href*='/dp/']\");" +
+        "  var stars = txt(c, 'i.a-icon-star-small span.a-icon-alt, i.a-icon-star span.a-icon-alt');" +
+        "  if (!stars) { var lab = c.querySelector(\"[aria-label*='out of 5 stars']\"); stars = lab ? lab.getAttribute('aria-label') : null; }" +
+        "  var m = stars ? stars.match(/([0-9.]+) out of/) : null;" +
+        "  var sponsoredLabel = c.querySelector('.puis-sponsored-label-text, .s-sponsored-label-text, [aria-label=\\'Sponsored\\']');" +
+        "  out.push({" +
+        "    position: i + 1," +
+        "    asin: c.getAttribute('data-asin') || ''," +
+        "    title: h2 ? (h2.innerText || '').trim() : ''," +
+        "    price: txt(c, '.a-price:not(.a-text-price) .a-offscreen') || txt(c, '.a-price .a-offscreen')," +
+        "    rating: m ? parseFloat(m[1]) : null," +
+        "    sponsored: !!sponsoredLabel || /(^|\\s)Sponsored(\\s|$)/.test(txt(c, '.s-label-popover-default') || '')," +
+        "    format: txt(c, 'a.a-text-bold')," +
+        "    link: a ? a.href : ''" +
+        "  });" +
+        "}" +
+        "return out;";
+
+    /** Every result card on the page, extracted in a single script call. */
+    public List<SearchResult> results() { return results(-1); }
+
+    /** The first {@code limit} result cards, extracted in a single script call. */
+    public List<SearchResult> results(int limit) {
+        List<SearchResult> out = new ArrayList<>();
         try {
-            WebElement title = cards.get(0).findElement(By.cssSelector("h2 a"));
-            return title.getText().trim();
-        } catch (NoSuchElementException ignored) { return ""; }
+            Object raw = ((JavascriptExecutor) driver).executeScript(EXTRACT_RESULTS_SCRIPT, limit);
+            if (raw instanceof List) {
+                for (Object o : (List<?>) raw) {
+                    if (o instanceof Map) out.add(SearchResult.fromScript((Map<?, ?>) o));
+                }
+            }
+        } catch (JavascriptException e) {
+            System.out.println("[ResultsPage] result extraction failed: " + e.getMessage());
+        }
+        return out;
+    }
+
+    public String firstResultTitle() {
+        List<SearchResult> first = results(1);
+        return first.isEmpty() ? "" : first.get(0).getTitle();
     }
 
     /** Return up to N visible result titles (best-effort). */
     public List<String> topResultTitles(int limit) {
         List<String> out = new ArrayList<>();
-        List<WebElement> cards = driver.findElements(resultCards);
-        int n = Math.min(limit, cards.size());
-        for (int i = 0; i < n; i++) {
-            try {
-                WebElement title = cards.get(i).findElement(By.cssSelector("h2 a"));
-                String text = title.getText();
-                if (text != null && !text.isBlank()) out.add(text.trim());
-            } catch (NoSuchElementException ignored) { }
+        for (SearchResult r : results(limit)) {
+            if (!r.getTitle().isBlank()) out.add(r.getTitle());
         }
         return out;
     }
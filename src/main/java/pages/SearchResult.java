@@ -0,0 +1,78 @@
+package pages;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * One search-result card as extracted by {@link ResultsPage#results(int)}.
+ * Missing pieces are null (price, rating, format) or "" (asin, title, link).
+ */
+public final class SearchResult {
+    private final int position;
+    private final String asin;
+    private final String title;
+    private final String priceText;
+    private final BigDecimal price;
+    private final Double rating;
+    private final boolean sponsored;
+    private final String format;
+    private final String link;
+
+    public SearchResult(int position, String asin, String title, String priceText, Double rating,
+                        boolean sponsored, String format, String link) {
+        this.position = position;
+        this.asin = asin == null ? "" : asin;
+        this.title = title == null ? "" : title;
+        this.priceText = priceText;
+        this.price = parsePrice(priceText);
+        this.rating = rating;
+        this.sponsored = sponsored;
+        this.format = format;
+        this.link = link == null ? "" : link;
+    }
+
+    /** Build from the map the extraction script returns for a card. */
+    static SearchResult fromScript(Map<?, ?> m) {
+        Object rating = m.get("rating");
+        return new SearchResult(
+                ((Number) m.get("position")).intValue(),
+                (String) m.get("asin"),
+                (String) m.get("title"),
+                (String) m.get("price"),
+                rating instanceof Number ? ((Number) rating).doubleValue() : null,
+                Boolean.TRUE.equals(m.get("sponsored")),
+                (String) m.get("format"),
+                (String) m.get("link"));
+    }
+
+    /** "₹1,299.00" -> 1299.00; null when there is no price on the card. */
+    private static BigDecimal parsePrice(String text) {
+        if (text == null) return null;
+        String digits = text.replaceAll("[^0-9.]", "");
+        if (digits.isEmpty() || digits.equals(".")) return null;
+        try { return new BigDecimal(digits); } catch (NumberFormatException e) { return null; }
+    }
+
+    /** 1-based position among the result cards on the page. */
+    public int getPosition() { return position; }
+    public String getAsin() { return asin; }
+    public String getTitle() { return title; }
+    /** Price as shown, e.g. "₹1,299.00". */
+    public String getPriceText() { return priceText; }
+    public BigDecimal getPrice() { return price; }
+    /** Stars out of 5, e.g. 4.5. */
+    public Double getRating() { return rating; }
+    public boolean isSponsored() { return sponsored; }
+    /** Edition/format label for media (Paperback, Kindle Edition, ...). */
+    public String getFormat() { return format; }
+    public String getLink() { return link; }
+
+    @Override
+    public String toString() {
+        return "#" + position + " [" + asin + "] " + title
+                + (priceText != null ? " | " + priceText : "")
+                + (rating != null ? " | " + rating + "★" : "")
+                + (format != null ? " | " + format : "")
+                + (sponsored ? " | sponsored" : "");
+    }
+}
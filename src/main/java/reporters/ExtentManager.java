@@ -1,44 +1,18 @@
 package reporters;
 
-import com.aventstack.extentreports.ExtentReports;
-import com.aventstack.extentreports.reporter.ExtentSparkReporter;
-
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-
+/**
+ * Kept for existing callers; all reporting now goes through {@link ReportingService}
+ * (outputs are configured with report.outputs).
+ */
 public class ExtentManager {
-    private static ExtentReports extent;
-
-    public static synchronized ExtentReports getInstance() {
-        if (extent == null) {
-            extent = createInstance("target/extent-report.html");
-        }
-        return extent;
-    }
-
-    private static ExtentReports createInstance(String reportPath) {
-        ExtentSparkReporter spark = new ExtentSparkReporter(reportPath);
-
-        Path cfg = Paths.get("src/test/resources/extent-config.xml");
-        if (Files.exists(cfg)) {
-            try {
-                spark.loadXMLConfig(cfg.toFile());
-            } catch (Exception e) {
-                System.err.println("Extent XML is present but failed to load: " + e.getMessage());
-            }
-        } else {
-            System.err.println("Extent XML not found; proceeding with defaults.");
-        }
+    /** Default Spark report; media paths in the report are relative to {@link ReportingService#reportDir()}. */
+    public static final String REPORT_PATH = "target/extent-report.html";
 
-        ExtentReports ex = new ExtentReports();
-        ex.attachReporter(spark);
-        return ex;
+    public static ReportingService.ReportTest startTest(String name) {
+        return ReportingService.startTest(name);
     }
 
     public static void flush() {
-        if (extent != null) {
-            extent.flush();
-        }
+        ReportingService.flush();
     }
 }
@@ -0,0 +1,442 @@
+package reporters;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.MediaEntityBuilder;
+import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.reporter.ExtentSparkReporter;
+import com.aventstack.extentreports.reporter.configuration.Theme;
+import com.aventstack.extentreports.reporter.configuration.ViewName;
+import utils.ConfigService;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The one reporting entry point for TestNG and Cucumber.
+ *
+ * Test threads only enqueue events ({@link ReportTest#log} etc.); a single "reporting" thread applies them to
+ * every sink, so Extent is never touched concurrently and never on a test thread. {@link #flush} is the
+ * barrier that waits for the queue and writes the reports.
+ *
+ * Sinks come from report.outputs (comma separated, default "spark:target/extent-report.html"):
+ *   spark:&lt;file&gt;            Extent Spark report, tests view first
+ *   spark-dashboard:&lt;file&gt;  Extent Spark report, dashboard view first
+ *   sharded:&lt;dir&gt;          one Spark file per feature or tag (report.shardBy) plus an index.html
+ *   console                  one line per finished log entry on stdout
+ * All spark outputs share one ExtentReports model, so each event is recorded once however many files are written.
+ * Screenshots are always linked by relative path, never embedded, so the model stays small.
+ */
+public final class ReportingService {
+
+    /** Receives report events on the reporting thread. */
+    public interface Sink {
+        /** {@code group} is the feature file / test class, {@code tags} the Cucumber tags or TestNG groups. */
+        void testStarted(long id, String name, String group, Collection<String> tags);
+        /** {@code mediaPath} is absolute; sinks link it relative to wherever they write. */
+        void log(long id, Status status, String message, Throwable error, String mediaPath);
+        default void testFinished(long id) {}
+        void flush();
+    }
+
+    private static final BlockingQueue<Runnable> QUEUE = new LinkedBlockingQueue<>();
+    private static final AtomicLong IDS = new AtomicLong();
+    private static final List<Sink> SINKS = new ArrayList<>();
+    private static volatile Path mediaBase;
+    private static volatile boolean started;
+
+    private ReportingService() {}
+
+    /** A test as seen by the report; every call just queues an event. */
+    public static final class ReportTest {
+        private final long id;
+        private final String name;
+
+        private ReportTest(long id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        public String getName() { return name; }
+
+        public void log(Status status, String message) { log(status, message, null, null); }
+
+        /** {@code mediaPath} is a screenshot on disk; it is linked relative to the report, not embedded. */
+        public void log(Status status, String message, String mediaPath) { log(status, message, null, mediaPath); }
+
+        public void log(Status status, String message, Throwable error, String mediaPath) {
+            String media = mediaPath == null ? null : Paths.get(mediaPath).toAbsolutePath().toString();
+            enqueue(() -> { for (Sink s : SINKS) s.log(id, status, message, error, media); });
+        }
+
+        /** No more results expected: call after the last log (for an async screenshot, from its callback). */
+        public void end() {
+            enqueue(() -> { for (Sink s : SINKS) s.testFinished(id); });
+        }
+
+        public void info(String message) { log(Status.INFO, message); }
+        public void pass(String message, String mediaPath) { log(Status.PASS, message, mediaPath); }
+        public void skip(String message, String mediaPath) { log(Status.SKIP, message, mediaPath); }
+        public void fail(Throwable error, String mediaPath) { log(Status.FAIL, null, error, mediaPath); }
+        public void fail(String message, String mediaPath) { log(Status.FAIL, message, mediaPath); }
+    }
+
+    /** Register a test with every sink. */
+    public static ReportTest startTest(String name) {
+        return startTest(name, null, Collections.emptyList());
+    }
+
+    public static ReportTest startTest(String name, String group, Collection<String> tags) {
+        ensureStarted();
+        ReportTest t = new ReportTest(IDS.incrementAndGet(), name);
+        List<String> tagList = tags == null ? Collections.emptyList() : new ArrayList<>(tags);
+        enqueue(() -> { for (Sink s : SINKS) s.testStarted(t.id, name, group, tagList); });
+        return t;
+    }
+
+    /** Wait until every queued event has been applied, then write all outputs. */
+    public static void flush() {
+        if (!started) return;
+        CountDownLatch done = new CountDownLatch(1);
+        enqueue(() -> {
+            try {
+                for (Sink s : SINKS) {
+                    try { s.flush(); } catch (Exception e) { System.err.println("Report flush warning: " + e.getMessage()); }
+                }
+            } finally {
+                done.countDown();
+            }
+        });
+        try {
+            if (!done.await(Duration.ofSeconds(120).toMillis(), TimeUnit.MILLISECONDS)) {
+                System.out.println("⚠ Reporting flush timed out with " + QUEUE.size() + " queued events");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Add a custom sink; must be called before the first test is started. */
+    public static synchronized void addSink(Sink sink) {
+        if (started) throw new IllegalStateException("ReportingService already started");
+        SINKS.add(sink);
+    }
+
+    /** Folder the first report file lives in; media paths are made relative to it. */
+    public static Path reportDir() {
+        ensureStarted();
+        return mediaBase;
+    }
+
+    static String relativize(Path dir, String mediaPath) {
+        try {
+            return dir.relativize(Paths.get(mediaPath).toAbsolutePath()).toString().replace('\\', '/');
+        } catch (Exception e) {
+            return mediaPath.replace('\\', '/');
+        }
+    }
+
+    // =================== Internals ===================
+
+    private static void enqueue(Runnable event) {
+        ensureStarted();
+        QUEUE.add(event);
+    }
+
+    private static synchronized void ensureStarted() {
+        if (started) return;
+        ExtentSink extent = null;
+        for (String out : ConfigService.getString("report.outputs", "spark:target/extent-report.html").split("\\s*,\\s*")) {
+            if (out.isEmpty()) continue;
+            if (out.equals("console")) {
+                SINKS.add(new ConsoleSink());
+                continue;
+            }
+            int colon = out.indexOf(':');
+            String kind = colon < 0 ? "spark" : out.substring(0, colon);
+            String file = colon < 0 ? out : out.substring(colon + 1);
+            if (kind.equals("sharded")) {
+                SINKS.add(new ShardedSink(Paths.get(file)));
+                if (mediaBase == null) mediaBase = Paths.get(file).toAbsolutePath();
+                continue;
+            }
+            if (!kind.equals("spark") && !kind.equals("spark-dashboard")) {
+                System.out.println("⚠ Unknown report output: " + out);
+                continue;
+            }
+            if (extent == null) {
+                extent = new ExtentSink(Paths.get(file).toAbsolutePath().getParent());
+                SINKS.add(extent);
+            }
+            extent.addSpark(file, kind.equals("spark-dashboard"));
+            if (mediaBase == null) mediaBase = Paths.get(file).toAbsolutePath().getParent();
+        }
+        if (mediaBase == null) mediaBase = Paths.get("target").toAbsolutePath();
+
+        Thread t = new Thread(() -> {
+            while (true) {
+                try {
+                    QUEUE.take().run();
+                } catch (InterruptedException e) {
+                    return;
+                } catch (Exception e) {
+                    System.err.println("Reporting event warning: " + e.getMessage());
+                }
+            }
+        }, "reporting");
+        t.setDaemon(true);
+        t.start();
+        started = true;
+    }
+
+    // =================== Sinks ===================
+
+    /**
+     * One ExtentReports model, rendered by one or more Spark reporters. Only used on the reporting thread.
+     * Media links are relative to {@code dir}, the folder of the first file.
+     */
+    static final class ExtentSink implements Sink {
+        private final ExtentReports extent = new ExtentReports();
+        private final Map<Long, ExtentTest> tests = new HashMap<>();
+        private final Path dir;
+        private boolean infoSet;
+
+        ExtentSink(Path dir) {
+            this.dir = dir;
+        }
+
+        void addSpark(String file, boolean dashboardFirst) {
+            Path p = Paths.get(file);
+            try { Files.createDirectories(p.toAbsolutePath().getParent()); } catch (Exception ignored) {}
+            ExtentSparkReporter spark = new ExtentSparkReporter(file);
+
+            Path cfg = Paths.get("src/test/resources/extent-config.xml");
+            if (Files.exists(cfg)) {
+                try {
+                    spark.loadXMLConfig(cfg.toFile());
+                } catch (Exception e) {
+                    System.err.println("Extent XML is present but failed to load: " + e.getMessage());
+                }
+            } else {
+                spark.config().setDocumentTitle("Amazon Automation Report");
+                spark.config().setReportName("Amazon Search Functionality");
+                spark.config().setTheme(Theme.STANDARD);
+            }
+            if (dashboardFirst) {
+                spark.viewConfigurer().viewOrder().as(new ViewName[]{
+                        ViewName.DASHBOARD, ViewName.TEST, ViewName.CATEGORY, ViewName.AUTHOR, ViewName.DEVICE, ViewName.EXCEPTION
+                });
+            }
+            extent.attachReporter(spark);
+        }
+
+        @Override
+        public void testStarted(long id, String name, String group, Collection<String> tags) {
+            if (!infoSet) {
+                infoSet = true;
+                extent.setSystemInfo("Project", "amazon-search-automation");
+                extent.setSystemInfo("Env", ConfigService.getString("env", "Local"));
+                extent.setSystemInfo("Browser", ConfigService.getString("browser", "chrome"));
+            }
+            ExtentTest test = extent.createTest(name);
+            if (!tags.isEmpty()) test.assignCategory(tags.toArray(new String[0]));
+            tests.put(id, test);
+        }
+
+        @Override
+        public void log(long id, Status status, String message, Throwable error, String absMedia) {
+            ExtentTest test = tests.get(id);
+            if (test == null) return;
+            String mediaPath = absMedia == null ? null : relativize(dir, absMedia);
+            if (error != null) {
+                if (mediaPath == null) test.log(status, error);
+                else test.log(status, error, MediaEntityBuilder.createScreenCaptureFromPath(mediaPath).build());
+            }
+            if (message != null) {
+                if (mediaPath == null || error != null) test.log(status, message);
+                else test.log(status, message, MediaEntityBuilder.createScreenCaptureFromPath(mediaPath).build());
+            }
+        }
+
+        @Override
+        public void flush() {
+            extent.flush();
+        }
+    }
+
+    /**
+     * One Spark file per shard under {@code dir}, keyed by feature/class (report.shardBy=feature) or by the first
+     * tag listed in report.shardTags that the test carries (report.shardBy=tag; any tag when the list is empty).
+     *
+     * Scenarios are handed out feature by feature, so once a test of another shard starts and nothing of a shard
+     * is running any more, that shard is complete: it is written once and its ExtentReports model is released,
+     * so only the shards in progress are held in memory. A test that arrives for a shard already released (a
+     * retry, or interleaved tags) opens another part file next to it. index.html keeps per-shard counts and is
+     * rewritten whenever a test finishes.
+     */
+    static final class ShardedSink implements Sink {
+        private final Path dir;
+        private final boolean byTag;
+        private final List<String> shardTags;
+        private final Map<String, Shard> shards = new TreeMap<>();
+        private final Map<Long, Shard> byTest = new HashMap<>();
+
+        private static final class Shard {
+            final String baseName;
+            final List<String> files = new ArrayList<>();
+            ExtentSink sink;                          // current part; null once written and released
+            final Set<Long> running = new HashSet<>();
+            final Map<Long, Status> outcome = new HashMap<>(); // tests not finished yet
+            int tests, failed, skipped;                // finished tests, over all parts
+
+            Shard(String baseName) {
+                this.baseName = baseName;
+            }
+
+            void open(Path dir) {
+                String file = baseName + (files.isEmpty() ? "" : "-part" + (files.size() + 1)) + ".html";
+                sink = new ExtentSink(dir);
+                sink.addSpark(dir.resolve(file).toString(), false);
+                files.add(file);
+            }
+
+            /** Write the current part and drop its model. */
+            void release() {
+                if (sink == null) return;
+                sink.flush();
+                sink = null;
+            }
+        }
+
+        ShardedSink(Path dir) {
+            this.dir = dir.toAbsolutePath();
+            this.byTag = ConfigService.getString("report.shardBy", "feature").equalsIgnoreCase("tag");
+            this.shardTags = new ArrayList<>();
+            for (String t : ConfigService.getString("report.shardTags", "").split("\\s*,\\s*")) {
+                if (!t.isEmpty()) shardTags.add(t.startsWith("@") ? t : "@" + t);
+            }
+        }
+
+        private String shardKey(String group, Collection<String> tags) {
+            if (!byTag) return group == null ? "default" : group;
+            for (String t : shardTags) if (tags.contains(t)) return t;
+            if (shardTags.isEmpty() && !tags.isEmpty()) return tags.iterator().next();
+            return "untagged";
+        }
+
+        @Override
+        public void testStarted(long id, String name, String group, Collection<String> tags) {
+            String key = shardKey(group, tags);
+            Shard shard = shards.computeIfAbsent(key, k -> new Shard(k.replaceAll("[^a-zA-Z0-9.-]", "_")));
+            // the run has moved on: shards with nothing running are complete
+            for (Shard other : shards.values()) {
+                if (other != shard && other.sink != null && other.running.isEmpty()) other.release();
+            }
+            if (shard.sink == null) shard.open(dir);
+            shard.sink.testStarted(id, name, group, tags);
+            shard.running.add(id);
+            shard.outcome.put(id, Status.PASS);
+            byTest.put(id, shard);
+        }
+
+        @Override
+        public void log(long id, Status status, String message, Throwable error, String mediaPath) {
+            Shard shard = byTest.get(id);
+            if (shard == null || shard.sink == null) return;
+            shard.sink.log(id, status, message, error, mediaPath);
+            Status was = shard.outcome.get(id);
+            if (was == null) return;
+            if (status == Status.FAIL || (status == Status.SKIP && was != Status.FAIL)) shard.outcome.put(id, status);
+        }
+
+        @Override
+        public void testFinished(long id) {
+            Shard shard = byTest.remove(id);
+            if (shard == null || !shard.running.remove(id)) return;
+            Status st = shard.outcome.remove(id);
+            shard.tests++;
+            if (st == Status.FAIL) shard.failed++;
+            else if (st == Status.SKIP) shard.skipped++;
+            writeIndex();
+        }
+
+        @Override
+        public void flush() {
+            for (Shard s : shards.values()) {
+                if (s.sink == null) continue;
+                if (s.running.isEmpty()) s.release();
+                else s.sink.flush();
+            }
+            writeIndex();
+        }
+
+        private void writeIndex() {
+            StringBuilder html = new StringBuilder();
+            html.append("<!DOCTYPE html>\n<html><head><meta charset=\"utf-8\"><title>Test Report</title>\n")
+                .append("<style>body{font-family:sans-serif;margin:2em}table{border-collapse:collapse}")
+                .append("td,th{border:1px solid #ccc;padding:4px 12px;text-align:right}td:first-child{text-align:left}")
+                .append(".fail{color:#c00}</style></head><body>\n<h1>Test Report</h1>\n<table>\n")
+                .append("<tr><th>").append(byTag ? "Tag" : "Feature")
+                .append("</th><th>Tests</th><th>Passed</th><th>Failed</th><th>Skipped</th><th>Running</th></tr>\n");
+            for (Map.Entry<String, Shard> e : shards.entrySet()) {
+                Shard s = e.getValue();
+                html.append("<tr").append(s.failed > 0 ? " class=\"fail\"" : "").append("><td><a href=\"")
+                    .append(s.files.get(0)).append("\">").append(escape(e.getKey())).append("</a>");
+                for (int i = 1; i < s.files.size(); i++) {
+                    html.append(" <a href=\"").append(s.files.get(i)).append("\">part ").append(i + 1).append("</a>");
+                }
+                html.append("</td><td>").append(s.tests).append("</td><td>").append(s.tests - s.failed - s.skipped)
+                    .append("</td><td>").append(s.failed).append("</td><td>").append(s.skipped)
+                    .append("</td><td>").append(s.running.size()).append("</td></tr>\n");
+            }
+            html.append("</table>\n</body></html>\n");
+            try {
+                Files.createDirectories(dir);
+                Path tmp = dir.resolve("index.html.tmp");
+                Files.write(tmp, html.toString().getBytes(StandardCharsets.UTF_8));
+                Files.move(tmp, dir.resolve("index.html"), StandardCopyOption.REPLACE_EXISTING);
+            } catch (Exception e) {
+                System.err.println("Report index warning: " + e.getMessage());
+            }
+        }
+
+        private static String escape(String s) {
+            return s.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+        }
+    }
+
+    static final class ConsoleSink implements Sink {
+        private final Map<Long, String> names = new HashMap<>();
+
+        @Override
+        public void testStarted(long id, String name, String group, Collection<String> tags) { names.put(id, name); }
+
+        @Override
+        public void log(long id, Status status, String message, Throwable error, String mediaPath) {
+            System.out.println("[Report] " + status + " " + names.get(id) + ": "
+                    + (message != null ? message : String.valueOf(error))
+                    + (mediaPath != null ? " (" + mediaPath + ")" : ""));
+        }
+
+        @Override
+        public void flush() {}
+    }
+}
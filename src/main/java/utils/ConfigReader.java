@@ -1,29 +1,17 @@
 package utils;
 
-import java.io.FileInputStream;
-import java.io.InputStream;
-import java.util.Properties;
-
+/**
+ * String lookups into {@link ConfigService}, which layers classpath, file, environment, system properties
+ * and overrides. New code should prefer ConfigService's typed getters.
+ */
 public class ConfigReader {
-    private static final Properties properties = new Properties();
-
-    static {
-        loadProperties("src/test/resources/config.properties");
-    }
-
-    private static void loadProperties(String path) {
-        try (InputStream is = new FileInputStream(path)) {
-            properties.load(is);
-        } catch (Exception e) {
-            System.out.println("⚠ Could not load config.properties from " + path + ": " + e.getMessage());
-        }
-    }
 
     public static String getProperty(String key) {
-        return properties.getProperty(key, "");
+        return getProperty(key, "");
     }
 
     public static String getProperty(String key, String defaultVal) {
-        return properties.getProperty(key, defaultVal);
+        String v = ConfigService.get(key);
+        return v == null ? defaultVal : v;
     }
 }
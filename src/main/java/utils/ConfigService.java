@@ -0,0 +1,305 @@
+package utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Layered configuration with typed accessors. Lookup order, highest first:
+ *
+ *   1. worker overrides   - {@link #withOverrides} on the current thread (e.g. a shard's browser / baseUrl)
+ *   2. run overrides      - {@link #setRunOverrides}
+ *   3. system properties  - -Dkey=value
+ *   4. environment        - AMZ_ + the key in upper snake form (explicitWait -> AMZ_EXPLICIT_WAIT,
+ *                           screenshot.format -> AMZ_SCREENSHOT_FORMAT); the prefix is -Dconfig.envPrefix
+ *   5. file               - -Dconfig.file, default src/test/resources/config.properties
+ *   6. classpath          - config.properties on the classpath
+ *
+ * Typed values (int, boolean, Duration, enum ...) are parsed once per distinct raw value.
+ * {@link #snapshot()} freezes the effective config of the calling thread; {@link #reload()} re-reads the
+ * file/classpath/environment layers and {@link #startAutoReload} does that whenever the file changes.
+ */
+public final class ConfigService {
+
+    private static final String DEFAULT_FILE = "src/test/resources/config.properties";
+    private static final String DEFAULT_ENV_PREFIX = "AMZ_";
+
+    // classpath + file + environment, rebuilt by reload()
+    private static volatile Map<String, String> base = Collections.emptyMap();
+    private static volatile long loadedFileMtime;
+    private static volatile Map<String, String> runOverrides = Collections.emptyMap();
+    private static final ThreadLocal<Map<String, String>> WORKER = new ThreadLocal<>();
+    private static final Map<String, Object> PARSED = new ConcurrentHashMap<>();
+    private static volatile Thread reloader;
+
+    static {
+        reload();
+    }
+
+    private ConfigService() {}
+
+    // =================== Lookup ===================
+
+    /** Effective raw value, or null when no layer has the key. */
+    public static String get(String key) {
+        Map<String, String> worker = WORKER.get();
+        if (worker != null && worker.containsKey(key)) return worker.get(key);
+        Map<String, String> run = runOverrides;
+        if (run.containsKey(key)) return run.get(key);
+        String sys = System.getProperty(key);
+        if (sys != null) return sys;
+        return base.get(key);
+    }
+
+    /** Trimmed value, or {@code defaultVal} when unset. */
+    public static String getString(String key, String defaultVal) {
+        String v = get(key);
+        return v == null ? defaultVal.trim() : v.trim();
+    }
+
+    public static int getInt(String key, int defaultVal) {
+        return typed(key, "int", Integer::valueOf, defaultVal);
+    }
+
+    public static long getLong(String key, long defaultVal) {
+        return typed(key, "long", Long::valueOf, defaultVal);
+    }
+
+    public static double getDouble(String key, double defaultVal) {
+        return typed(key, "double", Double::valueOf, defaultVal);
+    }
+
+    /** true / false (also yes / no, on / off, 1 / 0). */
+    public static boolean getBoolean(String key, boolean defaultVal) {
+        return typed(key, "boolean", ConfigService::parseBoolean, defaultVal);
+    }
+
+    /** "25" (in {@code bareUnit}), "500ms", "30s", "2m", "1h", "1d" or ISO-8601 "PT25S". */
+    public static Duration getDuration(String key, ChronoUnit bareUnit, Duration defaultVal) {
+        return typed(key, "duration:" + bareUnit, v -> parseDuration(v, bareUnit), defaultVal);
+    }
+
+    /** Case-insensitive, ignoring '-', '_' and spaces (on-failure, ON_FAILURE and onFailure all match). */
+    public static <E extends Enum<E>> E getEnum(String key, Class<E> type, E defaultVal) {
+        return typed(key, "enum:" + type.getName(), v -> parseEnum(v, type), defaultVal);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T typed(String key, String type, Function<String, T> parser, T defaultVal) {
+        String raw = get(key);
+        if (raw == null || raw.trim().isEmpty()) return defaultVal;
+        String v = raw.trim();
+        try {
+            return (T) PARSED.computeIfAbsent(type + "|" + v, k -> parser.apply(v));
+        } catch (RuntimeException e) {
+            System.out.println("⚠ Invalid " + type + " for " + key + "='" + v + "', using " + defaultVal);
+            return defaultVal;
+        }
+    }
+
+    // =================== Overrides ===================
+
+    /** Process-wide overrides above system properties (e.g. set once by a launcher for this run). */
+    public static void setRunOverrides(Map<String, String> overrides) {
+        runOverrides = Collections.unmodifiableMap(new HashMap<>(overrides));
+    }
+
+    /** A scope of worker overrides; closing it restores what the thread had before. */
+    public static final class Scope implements AutoCloseable {
+        private final Map<String, String> previous;
+
+        private Scope(Map<String, String> previous) { this.previous = previous; }
+
+        @Override
+        public void close() {
+            if (previous == null) WORKER.remove();
+            else WORKER.set(previous);
+        }
+    }
+
+    /**
+     * Overrides visible only to the calling thread, on top of any it already has:
+     *   try (ConfigService.Scope s = ConfigService.withOverrides(Map.of("browser", "firefox"))) { ... }
+     */
+    public static Scope withOverrides(Map<String, String> overrides) {
+        Map<String, String> previous = WORKER.get();
+        Map<String, String> merged = new HashMap<>();
+        if (previous != null) merged.putAll(previous);
+        merged.putAll(overrides);
+        WORKER.set(Collections.unmodifiableMap(merged));
+        return new Scope(previous);
+    }
+
+    // =================== Snapshots & reload ===================
+
+    /** Immutable view of every known key as the calling thread sees it right now. */
+    public static Snapshot snapshot() {
+        Map<String, String> all = new TreeMap<>(base);
+        for (String k : System.getProperties().stringPropertyNames()) all.put(k, System.getProperty(k));
+        all.putAll(runOverrides);
+        Map<String, String> worker = WORKER.get();
+        if (worker != null) all.putAll(worker);
+        return new Snapshot(all);
+    }
+
+    /** Re-read classpath, file and environment layers. Overrides and system properties are live anyway. */
+    public static synchronized void reload() {
+        Map<String, String> merged = new HashMap<>();
+
+        Properties cp = new Properties();
+        try (InputStream in = Thread.currentThread().getContextClassLoader().getResourceAsStream("config.properties")) {
+            if (in != null) cp.load(in);
+        } catch (IOException | RuntimeException ignored) {}
+        for (String k : cp.stringPropertyNames()) merged.put(k, cp.getProperty(k));
+
+        Path file = configFile();
+        if (Files.exists(file)) {
+            Properties fp = new Properties();
+            try (InputStream in = Files.newInputStream(file)) {
+                fp.load(in);
+                loadedFileMtime = Files.getLastModifiedTime(file).toMillis();
+            } catch (IOException e) {
+                System.out.println("⚠ Could not load config.properties from " + file + ": " + e.getMessage());
+            }
+            for (String k : fp.stringPropertyNames()) merged.put(k, fp.getProperty(k));
+        } else if (cp.isEmpty()) {
+            System.out.println("⚠ Could not load config.properties from " + file + ": file not found");
+        }
+
+        // environment only overrides keys the files know about, and only through the prefix, so
+        // unrelated variables ($BROWSER is often a launcher path, $TIMEOUT / $THREADS are common too) don't leak in
+        Map<String, String> env = System.getenv();
+        String prefix = System.getProperty("config.envPrefix", DEFAULT_ENV_PREFIX);
+        for (String k : merged.keySet().toArray(new String[0])) {
+            String v = env.get(prefix + envName(k));
+            if (v != null) merged.put(k, v);
+        }
+
+        base = Collections.unmodifiableMap(merged);
+        PARSED.clear();
+    }
+
+    /** Reload whenever the config file's mtime changes (for long-running daemons). Idempotent. */
+    public static synchronized void startAutoReload(Duration interval) {
+        if (reloader != null) return;
+        Thread t = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    Thread.sleep(interval.toMillis());
+                    Path f = configFile();
+                    if (Files.exists(f) && Files.getLastModifiedTime(f).toMillis() != loadedFileMtime) {
+                        reload();
+                        System.out.println("[ConfigService] reloaded " + f);
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                } catch (IOException ignored) {}
+            }
+        }, "config-reloader");
+        t.setDaemon(true);
+        reloader = t;
+        t.start();
+    }
+
+    private static Path configFile() {
+        return Paths.get(System.getProperty("config.file", DEFAULT_FILE));
+    }
+
+    /** explicitWait -> EXPLICIT_WAIT, screenshot.format -> SCREENSHOT_FORMAT */
+    static String envName(String key) {
+        return key.replaceAll("([a-z0-9])([A-Z])", "$1_$2").replaceAll("[^A-Za-z0-9]", "_").toUpperCase(Locale.ROOT);
+    }
+
+    // =================== Parsing ===================
+
+    private static boolean parseBoolean(String v) {
+        switch (v.toLowerCase(Locale.ROOT)) {
+            case "true": case "yes": case "on": case "1": return true;
+            case "false": case "no": case "off": case "0": return false;
+            default: throw new IllegalArgumentException("not a boolean");
+        }
+    }
+
+    static Duration parseDuration(String v, ChronoUnit bareUnit) {
+        String s = v.toLowerCase(Locale.ROOT);
+        if (s.startsWith("p")) return Duration.parse(v.toUpperCase(Locale.ROOT));
+        int i = 0;
+        while (i < s.length() && (Character.isDigit(s.charAt(i)) || s.charAt(i) == '.')) i++;
+        double amount = Double.parseDouble(s.substring(0, i));
+        String unit = s.substring(i).trim();
+        long nanosPer;
+        switch (unit) {
+            case "":    nanosPer = bareUnit.getDuration().toNanos(); break;
+            case "ms":  nanosPer = 1_000_000L; break;
+            case "s":   nanosPer = 1_000_000_000L; break;
+            case "m":   nanosPer = 60_000_000_000L; break;
+            case "h":   nanosPer = 3_600_000_000_000L; break;
+            case "d":   nanosPer = 86_400_000_000_000L; break;
+            default: throw new IllegalArgumentException("unknown unit " + unit);
+        }
+        return Duration.ofNanos(Math.round(amount * nanosPer));
+    }
+
+    private static <E extends Enum<E>> E parseEnum(String v, Class<E> type) {
+        String wanted = v.replaceAll("[-_\\s]", "");
+        for (E e : type.getEnumConstants()) {
+            if (e.name().replace("_", "").equalsIgnoreCase(wanted)) return e;
+        }
+        throw new IllegalArgumentException("not one of " + java.util.Arrays.toString(type.getEnumConstants()));
+    }
+
+    // =================== Snapshot ===================
+
+    /** Frozen config: later reloads, overrides and -D changes don't affect it. */
+    public static final class Snapshot {
+        private final Map<String, String> values;
+
+        private Snapshot(Map<String, String> values) {
+            this.values = Collections.unmodifiableMap(new LinkedHashMap<>(values));
+        }
+
+        public Map<String, String> asMap() { return values; }
+
+        public String getString(String key, String defaultVal) {
+            String v = values.get(key);
+            return v == null ? defaultVal.trim() : v.trim();
+        }
+
+        public int getInt(String key, int defaultVal) {
+            String v = values.get(key);
+            try { return v == null || v.isBlank() ? defaultVal : Integer.parseInt(v.trim()); }
+            catch (NumberFormatException e) { return defaultVal; }
+        }
+
+        public boolean getBoolean(String key, boolean defaultVal) {
+            String v = values.get(key);
+            try { return v == null || v.isBlank() ? defaultVal : parseBoolean(v.trim()); }
+            catch (IllegalArgumentException e) { return defaultVal; }
+        }
+
+        public Duration getDuration(String key, ChronoUnit bareUnit, Duration defaultVal) {
+            String v = values.get(key);
+            try { return v == null || v.isBlank() ? defaultVal : parseDuration(v.trim(), bareUnit); }
+            catch (RuntimeException e) { return defaultVal; }
+        }
+
+        public <E extends Enum<E>> E getEnum(String key, Class<E> type, E defaultVal) {
+            String v = values.get(key);
+            try { return v == null || v.isBlank() ? defaultVal : parseEnum(v.trim(), type); }
+            catch (IllegalArgumentException e) { return defaultVal; }
+        }
+    }
+}
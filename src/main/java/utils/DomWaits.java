@@ -0,0 +1,147 @@
+package utils;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Event-driven waits: an in-page MutationObserver wakes the wait as soon as the DOM changes,
+ * instead of sleeping a fixed time and hoping the page is ready.
+ *
+ * Every wait has a timeout and returns false when it expires (they never throw for a timeout).
+ * Waits survive navigations: if the document unloads mid-wait, the wait re-arms on the new page.
+ */
+public final class DomWaits {
+
+    // one executeAsyncScript call never blocks longer than this; longer waits are re-armed in chunks
+    private static final long MAX_CHUNK_MS = 10_000;
+
+    // arguments: [0] timeout ms. The predicate body is spliced in as pred().
+    private static final String CONDITION_SCRIPT =
+            "var done = arguments[arguments.length - 1], timeoutMs = arguments[0];" +
+            "function check() { try { return !!pred(); } catch (e) { return false; } }" +
+            "if (check()) { done(true); return; }" +
+            "var finished = false, queued = false, obs, timer, poll;" +
+            "function finish(v) {" +
+            "  if (finished) return; finished = true;" +
+            "  if (obs) obs.disconnect(); clearTimeout(timer); clearInterval(poll); done(v);" +
+            "}" +
+            // mutations arrive in bursts: coalesce them into one check per ~frame
+            "function schedule() {" +
+            "  if (queued || finished) return; queued = true;" +
+            "  setTimeout(function () { queued = false; if (check()) finish(true); }, 16);" +
+            "}" +
+            "obs = new MutationObserver(schedule);" +
+            "obs.observe(document.documentElement || document, {childList: true, subtree: true, attributes: true, characterData: true});" +
+            // conditions that are not DOM-driven (URL, readyState, timers) still get picked up
+            "poll = setInterval(function () { if (check()) finish(true); }, 250);" +
+            "timer = setTimeout(function () { finish(check()); }, timeoutMs);";
+
+    private DomWaits() {}
+
+    /**
+     * Wait until a JS predicate is true. {@code predicateBody} is a function body, e.g.
+     * {@code "return !!document.querySelector('.a-alert-content')"}; it is re-checked on every DOM change.
+     */
+    public static boolean awaitCondition(WebDriver driver, String predicateBody, Duration timeout) {
+        String script = "function pred() {" + predicateBody + "}" + CONDITION_SCRIPT;
+        return runChunked(driver, script, timeout);
+    }
+
+    /** Wait for document.readyState == 'complete'. */
+    public static boolean awaitReady(WebDriver driver, Duration timeout) {
+        return awaitCondition(driver, "return document.readyState === 'complete';", timeout);
+    }
+
+    /** Wait for any element matching the css to be present. */
+    public static boolean awaitPresent(WebDriver driver, String css, Duration timeout) {
+        return awaitCondition(driver, "return !!document.querySelector(" + jsString(css) + ");", timeout);
+    }
+
+    /**
+     * Wait until a click opened a new window or moved the current one off {@code urlBefore}.
+     * Window handles live outside the DOM, so this one polls WebDriver (100 ms) instead of observing.
+     */
+    public static boolean awaitNavigationOrNewWindow(WebDriver driver, Set<String> handlesBefore, String urlBefore, Duration timeout) {
+        try {
+            new WebDriverWait(driver, timeout, Duration.ofMillis(100)).until(d -> {
+                if (d.getWindowHandles().size() > handlesBefore.size()) return true;
+                String now = d.getCurrentUrl();
+                return now != null && !now.equals(urlBefore);
+            });
+            return true;
+        } catch (NoSuchSessionException e) {
+            throw e;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    // =================== Internals ===================
+
+    /**
+     * Runs an async wait script in chunks of at most MAX_CHUNK_MS until it reports true or the timeout expires.
+     * The script receives the chunk length as arguments[0] followed by {@code args}.
+     */
+    private static boolean runChunked(WebDriver driver, String script, Duration timeout, Object... args) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        Duration previous = raiseScriptTimeout(driver);
+        try {
+            return runChunks(driver, script, deadline, args);
+        } finally {
+            // pooled browsers outlive this wait; leave their script timeout as it was
+            if (previous != null) {
+                try { driver.manage().timeouts().scriptTimeout(previous); } catch (Exception ignored) {}
+            }
+        }
+    }
+
+    private static boolean runChunks(WebDriver driver, String script, long deadline, Object... args) {
+        while (!Thread.currentThread().isInterrupted()) {
+            long remaining = (deadline - System.nanoTime()) / 1_000_000;
+            if (remaining <= 0) return false;
+            Object[] callArgs = new Object[args.length + 1];
+            callArgs[0] = Math.min(remaining, MAX_CHUNK_MS);
+            System.arraycopy(args, 0, callArgs, 1, args.length);
+            try {
+                Object result = ((JavascriptExecutor) driver).executeAsyncScript(script, callArgs);
+                if (Boolean.TRUE.equals(result)) return true;
+            } catch (NoSuchSessionException e) {
+                throw e;
+            } catch (WebDriverException e) {
+                // document unloaded mid-wait (navigation) or not scriptable yet; re-arm on the next document
+                backOff();
+            }
+        }
+        return false;
+    }
+
+    /** Make room for one chunk; returns the timeout to restore, or null when it was already long enough. */
+    private static Duration raiseScriptTimeout(WebDriver driver) {
+        try {
+            Duration needed = Duration.ofMillis(MAX_CHUNK_MS + 5_000);
+            Duration current = driver.manage().timeouts().getScriptTimeout();
+            if (current != null && current.compareTo(needed) >= 0) return null;
+            driver.manage().timeouts().scriptTimeout(needed);
+            // WebDriver's default when it could not be read
+            return current != null ? current : Duration.ofSeconds(30);
+        } catch (Exception ignored) {
+            return null;
+        }
+    }
+
+    // only hit when the page was not scriptable at all (mid-navigation); keeps the retry loop from spinning
+    private static void backOff() {
+        try { Thread.sleep(50); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+    }
+
+    /** Quote a Java string as a single-quoted JS literal, for building predicate bodies. */
+    public static String jsString(String s) {
+        return "'" + s.replace("\\", "\\\\").replace("'", "\\'") + "'";
+    }
+}
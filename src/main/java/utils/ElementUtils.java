@@ -1,9 +1,16 @@
 package utils;
 
 import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.Rectangle;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
 public class ElementUtils {
     private WebDriver driver;
 
@@ -69,4 +76,208 @@ public class ElementUtils {
             return false;
         }
     }
+
+    // ---------- Batched State Snapshot ----------
+
+    // Resolves every locator in the page and reports its state; one round trip for the whole list.
+    // Per locator: the first visible+enabled match (else first visible, else first) plus the visible texts of all matches.
+    private static final String SNAPSHOT_SCRIPT =
+            "var qs = arguments[0], out = [];" +
+            "function find(t, v) {" +
+            "  switch (t) {" +
+            "    case 'id': return document.querySelectorAll('#' + CSS.escape(v));" +
+            "    case 'name': return document.querySelectorAll('[name=\"' + v.replace(/([\"\\\\])/g, '\\\\$1') + '\"]');" +
+            "    case 'className': return document.querySelectorAll('.' + CSS.escape(v));" +
+            "    case 'tagName': case 'css': return document.querySelectorAll(v);" +
+            "    case 'xpath':" +
+            "      var r = document.evaluate(v, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null), a = [];" +
+            "      for (var i = 0; i < r.snapshotLength; i++) if (r.snapshotItem(i).nodeType === 1) a.push(r.snapshotItem(i));" +
+            "      return a;" +
+            "    case 'linkText': case 'partialLinkText':" +
+            "      return Array.prototype.filter.call(document.querySelectorAll('a'), function (e) {" +
+            "        var x = (e.innerText || '').trim(); return t === 'linkText' ? x === v : x.indexOf(v) >= 0; });" +
+            "  }" +
+            "  return [];" +
+            "}" +
+            "function visible(e) {" +
+            "  if (e.checkVisibility && !e.checkVisibility({visibilityProperty: true})) return false;" +
+            "  var s = getComputedStyle(e);" +
+            "  return s.visibility !== 'hidden' && s.display !== 'none' && e.getClientRects().length > 0;" +
+            "}" +
+            "for (var q = 0; q < qs.length; q++) {" +
+            "  var st = {count: 0};" +
+            "  try {" +
+            "    var els = Array.prototype.slice.call(find(qs[q][0], qs[q][1])), pick = -1, texts = [];" +
+            "    st.count = els.length;" +
+            "    for (var k = 0; k < els.length; k++) {" +
+            "      if (visible(els[k])) {" +
+            "        if (pick < 0 || (els[pick].disabled && !els[k].disabled)) pick = k;" +
+            "        var tx = (els[k].innerText || '').trim();" +
+            "        if (tx && texts.length < 20) texts.push(tx);" +
+            "      }" +
+            "    }" +
+            "    if (els.length) {" +
+            "      var e = els[pick < 0 ? 0 : pick], rc = e.getBoundingClientRect();" +
+            "      st.el = e; st.visible = pick >= 0; st.enabled = !e.disabled;" +
+            "      st.text = st.visible ? (e.innerText || '').trim() : '';" +
+            "      st.value = (e.value === undefined || e.value === null) ? null : String(e.value);" +
+            "      st.rect = [rc.left, rc.top, rc.width, rc.height]; st.texts = texts;" +
+            "    }" +
+            "  } catch (err) { st.error = String(err); }" +
+            "  out.push(st);" +
+            "}" +
+            "return out;";
+
+    /**
+     * State of every locator in one executeScript call (instead of findElements + isDisplayed + getText per candidate).
+     * Results are in the same order as the locators. Locator types the page script cannot evaluate
+     * (chained / relative locators) fall back to regular WebDriver calls.
+     */
+    public List<ElementState> snapshot(List<By> locators) {
+        if (locators == null || locators.isEmpty()) return Collections.emptyList();
+
+        List<List<String>> queries = new ArrayList<>();
+        for (By by : locators) queries.add(toQuery(by));
+
+        List<?> raw;
+        try {
+            Object result = ((JavascriptExecutor) driver).executeScript(SNAPSHOT_SCRIPT, queries);
+            raw = result instanceof List ? (List<?>) result : Collections.emptyList();
+        } catch (Exception e) {
+            System.out.println("DEBUG: snapshot script failed, probing one by one -> " + e.getMessage());
+            raw = Collections.emptyList();
+        }
+
+        List<ElementState> states = new ArrayList<>(locators.size());
+        for (int i = 0; i < locators.size(); i++) {
+            By by = locators.get(i);
+            Object entry = i < raw.size() ? raw.get(i) : null;
+            if (queries.get(i) != null && entry instanceof Map && !((Map<?, ?>) entry).containsKey("error")) {
+                states.add(ElementState.fromScript(by, (Map<?, ?>) entry));
+            } else {
+                states.add(probe(by));
+            }
+        }
+        return states;
+    }
+
+    /** First state in the snapshot that is visible, or null. */
+    public ElementState firstVisibleState(List<By> locators) {
+        for (ElementState s : snapshot(locators)) if (s.isVisible()) return s;
+        return null;
+    }
+
+    /** ["css", "#x"] style query understood by SNAPSHOT_SCRIPT, or a null entry for unsupported locator types. */
+    private static List<String> toQuery(By by) {
+        String s = by.toString();
+        int colon = s.indexOf(": ");
+        if (!s.startsWith("By.") || colon < 0) return null;
+        String type = s.substring(3, colon);
+        String value = s.substring(colon + 2);
+        switch (type) {
+            case "id": case "name": case "className": case "tagName":
+            case "xpath": case "linkText": case "partialLinkText":
+                return List.of(type, value);
+            case "cssSelector":
+                return List.of("css", value);
+            default:
+                return null;
+        }
+    }
+
+    /** Slow path for a single locator: regular WebDriver calls. */
+    private ElementState probe(By by) {
+        try {
+            List<WebElement> els = driver.findElements(by);
+            if (els.isEmpty()) return ElementState.absent(by);
+            WebElement pick = els.get(0);
+            List<String> texts = new ArrayList<>();
+            boolean visible = false;
+            for (WebElement el : els) {
+                if (el.isDisplayed()) {
+                    if (!visible || (!pick.isEnabled() && el.isEnabled())) { pick = el; visible = true; }
+                    String t = el.getText();
+                    if (t != null && !t.isBlank() && texts.size() < 20) texts.add(t.trim());
+                }
+            }
+            return new ElementState(by, pick, els.size(), visible, pick.isEnabled(),
+                    visible ? pick.getText() : "", pick.getAttribute("value"), pick.getRect(), texts);
+        } catch (Exception e) {
+            return ElementState.absent(by);
+        }
+    }
+
+    /** Point-in-time state of a locator, as returned by {@link #snapshot(List)}. */
+    public static final class ElementState {
+        private final By locator;
+        private final WebElement element;
+        private final int count;
+        private final boolean visible;
+        private final boolean enabled;
+        private final String text;
+        private final String value;
+        private final Rectangle rect;
+        private final List<String> visibleTexts;
+
+        ElementState(By locator, WebElement element, int count, boolean visible, boolean enabled,
+                     String text, String value, Rectangle rect, List<String> visibleTexts) {
+            this.locator = locator;
+            this.element = element;
+            this.count = count;
+            this.visible = visible;
+            this.enabled = enabled;
+            this.text = text == null ? "" : text;
+            this.value = value;
+            this.rect = rect;
+            this.visibleTexts = visibleTexts == null ? Collections.emptyList() : Collections.unmodifiableList(visibleTexts);
+        }
+
+        static ElementState absent(By locator) {
+            return new ElementState(locator, null, 0, false, false, "", null, null, null);
+        }
+
+        static ElementState fromScript(By locator, Map<?, ?> m) {
+            int count = ((Number) m.get("count")).intValue();
+            if (count == 0) return absent(locator);
+
+            Rectangle rect = null;
+            Object r = m.get("rect");
+            if (r instanceof List && ((List<?>) r).size() == 4) {
+                List<?> xs = (List<?>) r;
+                rect = new Rectangle(num(xs.get(0)), num(xs.get(1)), num(xs.get(3)), num(xs.get(2)));
+            }
+            List<String> texts = new ArrayList<>();
+            Object t = m.get("texts");
+            if (t instanceof List) for (Object o : (List<?>) t) texts.add(String.valueOf(o));
+
+            Object el = m.get("el");
+            return new ElementState(locator, el instanceof WebElement ? (WebElement) el : null, count,
+                    Boolean.TRUE.equals(m.get("visible")), Boolean.TRUE.equals(m.get("enabled")),
+                    (String) m.get("text"), (String) m.get("value"), rect, texts);
+        }
+
+        private static int num(Object o) {
+            return o instanceof Number ? (int) Math.round(((Number) o).doubleValue()) : 0;
+        }
+
+        public By getLocator() { return locator; }
+        /** The reported match (first visible+enabled, else first visible, else first); null when nothing matched. */
+        public WebElement getElement() { return element; }
+        public int getCount() { return count; }
+        public boolean isPresent() { return count > 0; }
+        public boolean isVisible() { return visible; }
+        public boolean isEnabled() { return enabled; }
+        /** Visible text of the reported match ("" when hidden). */
+        public String getText() { return text; }
+        public String getValue() { return value; }
+        /** Viewport-relative bounds, or null when nothing matched. */
+        public Rectangle getRect() { return rect; }
+        /** Non-empty texts of all visible matches (capped at 20). */
+        public List<String> getVisibleTexts() { return visibleTexts; }
+
+        @Override
+        public String toString() {
+            return locator + " {count=" + count + ", visible=" + visible + ", enabled=" + enabled + "}";
+        }
+    }
 }
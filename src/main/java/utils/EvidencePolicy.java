@@ -0,0 +1,34 @@
+package utils;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * When to capture screenshot evidence (config: evidence.policy).
+ *
+ *   onFailure  - only failed tests/scenarios (default)
+ *   everyStep  - after every Cucumber step, plus the failure frame
+ *   sampled    - failures, plus evidence.sampleRate (0..1, default 0.1) of the passing ones
+ *   always     - every test/scenario at the end
+ */
+public enum EvidencePolicy {
+    ON_FAILURE, EVERY_STEP, SAMPLED, ALWAYS;
+
+    public static EvidencePolicy current() {
+        return ConfigService.getEnum("evidence.policy", EvidencePolicy.class, ON_FAILURE);
+    }
+
+    /** Capture after each step. */
+    public boolean capturesSteps() {
+        return this == EVERY_STEP;
+    }
+
+    /** Capture when the test/scenario ends with the given outcome. */
+    public boolean capturesAtEnd(boolean failed) {
+        if (failed) return true;
+        switch (this) {
+            case ALWAYS:  return true;
+            case SAMPLED: return ThreadLocalRandom.current().nextDouble() < ConfigService.getDouble("evidence.sampleRate", 0.1);
+            default:      return false;
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package utils;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.xml.sax.SAXException;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Streaming reader for large .xlsx test-data sheets.
+ *
+ * Pulls one row at a time straight from the sheet XML (StAX over {@link XSSFReader}) instead of building
+ * POI's workbook model, so memory stays flat however many rows the sheet has (shared strings are
+ * the only per-file table kept). Cells are formatted like {@link ExcelUtils} does, with {@link DataFormatter}.
+ *
+ *   try (ExcelRowReader rows = ExcelRowReader.open(path, "Search", true)) {
+ *       for (ExcelRowReader.DataRow row : rows) { String term = row.get("term"); }
+ *   }
+ *
+ * The iterator is single-pass and only valid until close().
+ */
+public final class ExcelRowReader implements Iterable<ExcelRowReader.DataRow>, Closeable {
+
+    private final OPCPackage pkg;
+    private final InputStream sheetStream;
+    private final XMLStreamReader xml;
+    private final ReadOnlySharedStringsTable strings;
+    private final StylesTable styles;
+    private final DataFormatter formatter = new DataFormatter();
+    private final Path tempCopy;
+
+    private final Map<String, Integer> header;
+    private DataRow next;
+    private boolean iterated;
+
+    private ExcelRowReader(OPCPackage pkg, String sheetName, boolean hasHeader, Path tempCopy) throws IOException {
+        this.pkg = pkg;
+        this.tempCopy = tempCopy;
+        try {
+            XSSFReader reader = new XSSFReader(pkg);
+            this.strings = new ReadOnlySharedStringsTable(pkg);
+            this.styles = reader.getStylesTable();
+            this.sheetStream = openSheet(reader, sheetName);
+
+            XMLInputFactory factory = XMLInputFactory.newInstance();
+            factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+            factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+            this.xml = factory.createXMLStreamReader(sheetStream);
+        } catch (OpenXML4JException | SAXException | XMLStreamException e) {
+            throw new IOException("Cannot stream workbook: " + e.getMessage(), e);
+        }
+
+        Map<String, Integer> cols = Collections.emptyMap();
+        if (hasHeader) {
+            DataRow first = readRow();
+            if (first != null) {
+                cols = new LinkedHashMap<>();
+                for (int c = 0; c < first.size(); c++) {
+                    String name = first.get(c).trim();
+                    if (!name.isEmpty()) cols.putIfAbsent(name.toLowerCase(Locale.ROOT), c);
+                }
+            }
+        }
+        this.header = Collections.unmodifiableMap(cols);
+    }
+
+    /** Stream {@code sheetName} (null or missing = first sheet) of an .xlsx file. */
+    public static ExcelRowReader open(Path file, String sheetName, boolean hasHeader) throws IOException {
+        try {
+            return create(OPCPackage.open(file.toFile(), PackageAccess.READ), sheetName, hasHeader, null);
+        } catch (org.apache.poi.openxml4j.exceptions.InvalidFormatException e) {
+            throw new IOException("Not an .xlsx file: " + file, e);
+        }
+    }
+
+    /**
+     * Stream from an InputStream (e.g. a classpath resource). The zip needs random access, so the stream is
+     * spooled to a temp file first rather than unpacked into memory; the file is deleted on close().
+     */
+    public static ExcelRowReader open(InputStream in, String sheetName, boolean hasHeader) throws IOException {
+        Path tmp = Files.createTempFile("excel-stream-", ".xlsx");
+        try {
+            Files.copy(in, tmp, StandardCopyOption.REPLACE_EXISTING);
+            return create(OPCPackage.open(tmp.toFile(), PackageAccess.READ), sheetName, hasHeader, tmp);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        } catch (org.apache.poi.openxml4j.exceptions.InvalidFormatException e) {
+            Files.deleteIfExists(tmp);
+            throw new IOException("Not an .xlsx stream", e);
+        }
+    }
+
+    private static ExcelRowReader create(OPCPackage pkg, String sheetName, boolean hasHeader, Path tempCopy) throws IOException {
+        try {
+            return new ExcelRowReader(pkg, sheetName, hasHeader, tempCopy);
+        } catch (IOException | RuntimeException e) {
+            pkg.revert();
+            throw e;
+        }
+    }
+
+    private static InputStream openSheet(XSSFReader reader, String sheetName) throws IOException, OpenXML4JException {
+        XSSFReader.SheetIterator it = (XSSFReader.SheetIterator) reader.getSheetsData();
+        InputStream first = null;
+        while (it.hasNext()) {
+            InputStream s = it.next();
+            if (sheetName != null && sheetName.equalsIgnoreCase(it.getSheetName())) {
+                if (first != null) first.close();
+                return s;
+            }
+            if (first == null) first = s;
+            else s.close();
+        }
+        if (first == null) throw new IllegalArgumentException("No sheets found in workbook.");
+        return first;
+    }
+
+    /** Lower-cased column name -> index, from the header row (empty when opened without one). */
+    public Map<String, Integer> getHeader() { return header; }
+
+    /** Rows after the header, read lazily. Blank rows are skipped. */
+    @Override
+    public Iterator<DataRow> iterator() {
+        if (iterated) throw new IllegalStateException("ExcelRowReader can only be iterated once");
+        iterated = true;
+        return new Iterator<DataRow>() {
+            @Override
+            public boolean hasNext() {
+                if (next == null) next = readRow();
+                return next != null;
+            }
+
+            @Override
+            public DataRow next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                DataRow r = next;
+                next = null;
+                return r;
+            }
+        };
+    }
+
+    // =================== Row parsing ===================
+
+    /** Next non-empty row, or null at the end of the sheet. */
+    private DataRow readRow() {
+        try {
+            while (xml.hasNext()) {
+                if (xml.next() == XMLStreamConstants.START_ELEMENT && "row".equals(xml.getLocalName())) {
+                    DataRow row = parseRow();
+                    if (!row.isBlank()) return row;
+                }
+            }
+            return null;
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("Broken sheet XML: " + e.getMessage(), e);
+        }
+    }
+
+    // positioned on <row>; consumes up to </row>
+    private DataRow parseRow() throws XMLStreamException {
+        String r = xml.getAttributeValue(null, "r");
+        int rowNum = r != null ? Integer.parseInt(r) - 1 : -1;
+        List<String> cells = new ArrayList<>();
+        while (xml.hasNext()) {
+            int ev = xml.next();
+            if (ev == XMLStreamConstants.END_ELEMENT && "row".equals(xml.getLocalName())) break;
+            if (ev == XMLStreamConstants.START_ELEMENT && "c".equals(xml.getLocalName())) {
+                String ref = xml.getAttributeValue(null, "r");
+                int col = ref != null ? columnIndex(ref) : cells.size();
+                String value = parseCell(xml.getAttributeValue(null, "t"), xml.getAttributeValue(null, "s"));
+                while (cells.size() < col) cells.add("");
+                if (cells.size() == col) cells.add(value);
+                else cells.set(col, value);
+            }
+        }
+        return new DataRow(rowNum, cells, header);
+    }
+
+    // positioned on <c>; consumes up to </c>
+    private String parseCell(String type, String styleIndex) throws XMLStreamException {
+        StringBuilder value = new StringBuilder();
+        boolean inValue = false;
+        while (xml.hasNext()) {
+            int ev = xml.next();
+            if (ev == XMLStreamConstants.START_ELEMENT) {
+                String n = xml.getLocalName();
+                // <v> value, or <t> inside an inline string (rich text runs append)
+                inValue = "v".equals(n) || "t".equals(n);
+            } else if (ev == XMLStreamConstants.CHARACTERS || ev == XMLStreamConstants.CDATA) {
+                if (inValue) value.append(xml.getText());
+            } else if (ev == XMLStreamConstants.END_ELEMENT) {
+                if ("c".equals(xml.getLocalName())) break;
+                inValue = false;
+            }
+        }
+        return format(type, styleIndex, value.toString());
+    }
+
+    private String format(String type, String styleIndex, String raw) {
+        if (raw.isEmpty()) return "";
+        if (type == null || "n".equals(type)) {
+            try {
+                double d = Double.parseDouble(raw);
+                if (styleIndex != null && styles != null) {
+                    XSSFCellStyle style = styles.getStyleAt(Integer.parseInt(styleIndex));
+                    String fmt = style.getDataFormatString();
+                    if (fmt != null) return formatter.formatRawCellContents(d, style.getDataFormat(), fmt);
+                }
+                return formatter.formatRawCellContents(d, 0, "General");
+            } catch (NumberFormatException e) {
+                return raw;
+            }
+        }
+        switch (type) {
+            case "s":
+                try {
+                    return strings.getItemAt(Integer.parseInt(raw.trim())).getString();
+                } catch (RuntimeException e) {
+                    return raw;
+                }
+            case "b":
+                return "1".equals(raw) ? "TRUE" : "FALSE";
+            default: // inlineStr, str (formula result), e (error)
+                return raw;
+        }
+    }
+
+    /** "AB12" -> 27 */
+    static int columnIndex(String cellRef) {
+        int col = 0;
+        for (int i = 0; i < cellRef.length(); i++) {
+            char ch = cellRef.charAt(i);
+            if (ch < 'A' || ch > 'Z') break;
+            col = col * 26 + (ch - 'A' + 1);
+        }
+        return col - 1;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try { xml.close(); } catch (XMLStreamException ignored) {}
+        try { sheetStream.close(); } catch (IOException ignored) {}
+        pkg.revert(); // read-only: close without saving
+        if (tempCopy != null) Files.deleteIfExists(tempCopy);
+    }
+
+    // =================== Row model ===================
+
+    /** One sheet row as formatted strings; missing cells read as "". */
+    public static final class DataRow {
+        private final int rowNum;
+        private final List<String> cells;
+        private final Map<String, Integer> header;
+
+        DataRow(int rowNum, List<String> cells, Map<String, Integer> header) {
+            this.rowNum = rowNum;
+            this.cells = cells;
+            this.header = header;
+        }
+
+        /** 0-based row index in the sheet. */
+        public int getRowNum() { return rowNum; }
+
+        public int size() { return cells.size(); }
+
+        public String get(int col) {
+            return col >= 0 && col < cells.size() ? cells.get(col) : "";
+        }
+
+        /** Value by header name (case-insensitive); "" when the column doesn't exist. */
+        public String get(String column) {
+            Integer col = header == null ? null : header.get(column.toLowerCase(Locale.ROOT));
+            return col == null ? "" : get(col);
+        }
+
+        /** Header name -> value, in column order. */
+        public Map<String, String> asMap() {
+            Map<String, String> m = new LinkedHashMap<>();
+            if (header != null) header.forEach((name, col) -> m.put(name, get(col)));
+            return m;
+        }
+
+        boolean isBlank() {
+            for (String c : cells) if (!c.trim().isEmpty()) return false;
+            return true;
+        }
+
+        @Override
+        public String toString() { return "row " + (rowNum + 1) + " " + cells; }
+    }
+}
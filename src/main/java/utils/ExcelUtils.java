@@ -5,9 +5,15 @@ import org.apache.poi.ss.usermodel.*;
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Random-access reader over a whole workbook loaded into memory. For large data sheets that are read
+ * top to bottom, use {@link #stream} instead; for data shared by many tests, {@link TestDataStore}
+ * parses each sheet once and caches it.
+ */
 public class ExcelUtils implements Closeable {
     private final Workbook workbook;
     private final Sheet sheet;
@@ -45,5 +51,14 @@ public class ExcelUtils implements Closeable {
         return out;
     }
 
+    /** Row-by-row streaming read with header lookup; memory stays flat regardless of sheet size. */
+    public static ExcelRowReader stream(Path file, String sheetName) throws IOException {
+        return ExcelRowReader.open(file, sheetName, true);
+    }
+
+    public static ExcelRowReader stream(InputStream file, String sheetName) throws IOException {
+        return ExcelRowReader.open(file, sheetName, true);
+    }
+
     @Override public void close() throws IOException { workbook.close(); }
 }
@@ -0,0 +1,212 @@
+package utils;
+
+import org.openqa.selenium.By;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers which candidate of each {@link MultiLocator} group actually matched, across runs.
+ *
+ * Candidates are ordered by a hit score that decays every run (recent wins count more), so the usual
+ * winner is probed first and alone. Candidates that never match (or only ever match as rejected decoys,
+ * see {@link MultiLocator.Match#reject()}) are reported as dead.
+ *
+ * Persisted to test-output/locator-cache.properties (locatorCache.file); call {@link #save()} at the end of the suite.
+ * Config: locatorCache.enabled (default true), locatorCache.decay (default 0.8), locatorCache.deadAfter (default 20).
+ */
+public final class LocatorPriorityCache {
+
+    private static final String WINNER = "@winner";
+    private static final Map<String, Group> GROUPS = new ConcurrentHashMap<>();
+    private static volatile boolean loaded;
+
+    private LocatorPriorityCache() {}
+
+    /** Per-candidate statistics: decayed score, lifetime hits, and recorded lookups in which it was evaluated. */
+    private static final class Stat {
+        double score;
+        long hits;
+        long seen;
+    }
+
+    private static final class Group {
+        final Map<String, Stat> stats = new LinkedHashMap<>();
+        String winner;
+    }
+
+    public static boolean isEnabled() {
+        return ConfigService.getBoolean("locatorCache.enabled", true);
+    }
+
+    /** Candidates in probe order: last winner first, then by decayed score, ties in declared order. */
+    public static List<By> order(String group, List<By> candidates) {
+        if (!isEnabled() || group == null) return candidates;
+        Group g = group(group);
+        synchronized (g) {
+            List<By> ordered = new ArrayList<>(candidates);
+            ordered.sort(Comparator.comparingDouble((By by) -> {
+                String key = by.toString();
+                if (key.equals(g.winner)) return Double.NEGATIVE_INFINITY;
+                Stat s = g.stats.get(key);
+                return s == null ? 0 : -s.score;
+            }));
+            return ordered;
+        }
+    }
+
+    /** The candidate that won the last lookup, if it is still in the list. */
+    public static By lastWinner(String group, List<By> candidates) {
+        if (!isEnabled() || group == null) return null;
+        Group g = group(group);
+        synchronized (g) {
+            if (g.winner == null) return null;
+            for (By by : candidates) if (by.toString().equals(g.winner)) return by;
+            return null;
+        }
+    }
+
+    /**
+     * Record a successful lookup. {@code probed} are the candidates that were actually evaluated; backups
+     * skipped because the last winner matched alone are not counted, so they can't look dead.
+     */
+    public static void recordHit(String group, List<By> probed, By winner) {
+        if (!isEnabled() || group == null) return;
+        Group g = group(group);
+        synchronized (g) {
+            for (By by : probed) g.stats.computeIfAbsent(by.toString(), k -> new Stat()).seen++;
+            Stat s = g.stats.computeIfAbsent(winner.toString(), k -> new Stat());
+            s.score += 1.0;
+            s.hits++;
+            g.winner = winner.toString();
+        }
+    }
+
+    /**
+     * Record that {@code candidate} matched but the action on it did not work (a decoy): it counts as
+     * evaluated without a hit, gives back one hit's worth of score and is no longer probed alone first.
+     */
+    public static void recordMiss(String group, By candidate) {
+        if (!isEnabled() || group == null) return;
+        Group g = group(group);
+        synchronized (g) {
+            Stat s = g.stats.computeIfAbsent(candidate.toString(), k -> new Stat());
+            s.seen++;
+            s.score = Math.max(0, s.score - 1.0);
+            if (candidate.toString().equals(g.winner)) g.winner = null;
+        }
+    }
+
+    /** group -> candidates that were evaluated in at least locatorCache.deadAfter recorded lookups and never won. */
+    public static Map<String, List<String>> deadCandidates() {
+        long deadAfter = ConfigService.getLong("locatorCache.deadAfter", 20);
+        Map<String, List<String>> dead = new LinkedHashMap<>();
+        for (Map.Entry<String, Group> e : GROUPS.entrySet()) {
+            synchronized (e.getValue()) {
+                for (Map.Entry<String, Stat> c : e.getValue().stats.entrySet()) {
+                    if (c.getValue().hits == 0 && c.getValue().seen >= deadAfter) {
+                        dead.computeIfAbsent(e.getKey(), k -> new ArrayList<>())
+                            .add(c.getKey() + " (0/" + c.getValue().seen + ")");
+                    }
+                }
+            }
+        }
+        return dead;
+    }
+
+    /** Persist the scores and print dead candidates. Safe to call more than once. */
+    public static void save() {
+        if (!isEnabled() || !loaded) return;
+        Properties p = new Properties();
+        for (Map.Entry<String, Group> e : GROUPS.entrySet()) {
+            Group g = e.getValue();
+            synchronized (g) {
+                if (g.winner != null) p.setProperty(e.getKey() + "|" + WINNER, g.winner);
+                for (Map.Entry<String, Stat> c : g.stats.entrySet()) {
+                    Stat s = c.getValue();
+                    p.setProperty(e.getKey() + "|" + c.getKey(),
+                            String.format(Locale.ROOT, "%.4f,%d,%d", s.score, s.hits, s.seen));
+                }
+            }
+        }
+        Path file = file();
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Path tmp = Files.createTempFile(file.toAbsolutePath().getParent(), ".locator-cache-", ".tmp");
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                p.store(out, "Locator priority cache: group|locator = decayedScore,hits,seen");
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            System.out.println("⚠ Could not save locator cache " + file + ": " + e.getMessage());
+        }
+
+        Map<String, List<String>> dead = deadCandidates();
+        if (!dead.isEmpty()) {
+            System.out.println("[LocatorPriorityCache] dead candidates (never matched):");
+            dead.forEach((group, list) -> list.forEach(c -> System.out.println("  " + group + " -> " + c)));
+        }
+    }
+
+    // =================== Loading ===================
+
+    private static Group group(String name) {
+        ensureLoaded();
+        return GROUPS.computeIfAbsent(name, k -> new Group());
+    }
+
+    private static void ensureLoaded() {
+        if (loaded) return;
+        synchronized (LocatorPriorityCache.class) {
+            if (loaded) return;
+            Path file = file();
+            double decay = ConfigService.getDouble("locatorCache.decay", 0.8);
+            if (Files.exists(file)) {
+                Properties p = new Properties();
+                try (InputStream in = Files.newInputStream(file)) {
+                    p.load(in);
+                } catch (IOException e) {
+                    System.out.println("⚠ Could not read locator cache " + file + ": " + e.getMessage());
+                }
+                for (String key : p.stringPropertyNames()) {
+                    int bar = key.indexOf('|');
+                    if (bar <= 0) continue;
+                    Group g = GROUPS.computeIfAbsent(key.substring(0, bar), k -> new Group());
+                    String candidate = key.substring(bar + 1);
+                    if (candidate.equals(WINNER)) {
+                        g.winner = p.getProperty(key);
+                        continue;
+                    }
+                    String[] parts = p.getProperty(key).split(",");
+                    if (parts.length != 3) continue;
+                    try {
+                        Stat s = new Stat();
+                        s.score = Double.parseDouble(parts[0]) * decay;   // one run older
+                        s.hits = Long.parseLong(parts[1]);
+                        s.seen = Long.parseLong(parts[2]);
+                        g.stats.put(candidate, s);
+                    } catch (NumberFormatException ignored) {}
+                }
+                System.out.println("[LocatorPriorityCache] loaded " + GROUPS.size() + " locator groups from " + file);
+            }
+            loaded = true;
+        }
+    }
+
+    private static Path file() {
+        return Paths.get(ConfigService.getString("locatorCache.file", "test-output/locator-cache.properties"));
+    }
+}
@@ -0,0 +1,158 @@
+package utils;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import utils.ElementUtils.ElementState;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A group of alternative locators for one logical element ("the proceed-to-checkout button").
+ *
+ * All candidates are evaluated in a single in-page call (see {@link ElementUtils#snapshot(List)});
+ * the first one with a visible, enabled match wins. The name keys the group in {@link LocatorPriorityCache},
+ * so use "page.element" style names. {@link #await} re-evaluates the whole set on every poll
+ * instead of waiting out each candidate in turn.
+ *
+ * A lookup counts as a win as soon as it matches. For action elements whose match can be a decoy (a link that
+ * looks like the button but leads elsewhere) use {@link #confirmedByCaller()}: the caller then reports back
+ * with {@link Match#confirm()} or {@link Match#reject()} once the action proved right or wrong.
+ */
+public class MultiLocator {
+
+    private final String name;
+    private final List<By> candidates;
+    private final boolean confirmedByCaller;
+
+    public MultiLocator(String name, List<By> candidates) {
+        this(name, candidates, false);
+    }
+
+    private MultiLocator(String name, List<By> candidates, boolean confirmedByCaller) {
+        this.name = name;
+        this.candidates = Collections.unmodifiableList(new ArrayList<>(candidates));
+        this.confirmedByCaller = confirmedByCaller;
+    }
+
+    public MultiLocator(String name, By... candidates) {
+        this(name, Arrays.asList(candidates));
+    }
+
+    public String getName() { return name; }
+    public List<By> getCandidates() { return candidates; }
+
+    /** The same group, but its matches only count once the caller calls {@link Match#confirm()}. */
+    public MultiLocator confirmedByCaller() {
+        return new MultiLocator(name, candidates, true);
+    }
+
+    /** The winning candidate of one evaluation. */
+    public static final class Match {
+        private final String group;
+        private final List<By> probed;
+        private final int index;
+        private final ElementState state;
+        // still waiting for confirm() / reject(); false once recorded
+        private boolean pending;
+
+        Match(String group, List<By> probed, int index, ElementState state, boolean pending) {
+            this.group = group;
+            this.probed = probed;
+            this.index = index;
+            this.state = state;
+            this.pending = pending;
+        }
+
+        /** Position of the winning candidate in the declared list. */
+        public int getIndex() { return index; }
+        public By getLocator() { return state.getLocator(); }
+        public WebElement getElement() { return state.getElement(); }
+        public ElementState getState() { return state; }
+
+        /** The action on this match worked: record the win. No-op unless the group is {@link #confirmedByCaller()}. */
+        public void confirm() {
+            if (!pending) return;
+            pending = false;
+            LocatorPriorityCache.recordHit(group, probed, state.getLocator());
+        }
+
+        /** This match was a decoy: record a miss for it. No-op unless the group is {@link #confirmedByCaller()}. */
+        public void reject() {
+            if (!pending) return;
+            pending = false;
+            LocatorPriorityCache.recordMiss(group, state.getLocator());
+        }
+
+        @Override
+        public String toString() { return "#" + index + " " + state.getLocator(); }
+    }
+
+    /**
+     * First candidate with a visible, enabled match in the current frame, or null.
+     * The group's usual winner (see {@link LocatorPriorityCache}) is probed alone first; only when it
+     * misses are all candidates evaluated, in learned priority order, in one more round trip.
+     */
+    public Match find(WebDriver driver) {
+        return find(driver, Collections.emptySet());
+    }
+
+    /** Like {@link #find(WebDriver)}, skipping the {@code excluded} candidates (e.g. ones already rejected). */
+    public Match find(WebDriver driver, Collection<By> excluded) {
+        ElementUtils elements = new ElementUtils(driver);
+
+        By preferred = LocatorPriorityCache.lastWinner(name, candidates);
+        if (preferred != null && !excluded.contains(preferred)) {
+            ElementState s = elements.snapshot(Collections.singletonList(preferred)).get(0);
+            if (isUsable(s)) return hit(Collections.singletonList(preferred), preferred, s);
+        }
+
+        List<By> ordered = new ArrayList<>(LocatorPriorityCache.order(name, candidates));
+        ordered.removeAll(excluded);
+        if (ordered.isEmpty()) return null;
+        List<ElementState> states = elements.snapshot(ordered);
+        for (int i = 0; i < states.size(); i++) {
+            if (isUsable(states.get(i))) return hit(ordered, ordered.get(i), states.get(i));
+        }
+        return null;
+    }
+
+    private static boolean isUsable(ElementState s) {
+        return s.isVisible() && s.isEnabled() && s.getElement() != null;
+    }
+
+    // only the candidates this lookup actually evaluated count as "seen"
+    private Match hit(List<By> probed, By winner, ElementState state) {
+        if (!confirmedByCaller) LocatorPriorityCache.recordHit(name, probed, winner);
+        return new Match(name, probed, candidates.indexOf(winner), state, confirmedByCaller);
+    }
+
+    /** Poll {@link #find} until a candidate wins or the timeout expires; null on timeout. */
+    public Match await(WebDriver driver, Duration timeout) {
+        return await(driver, timeout, Collections.emptySet());
+    }
+
+    /** Like {@link #await(WebDriver, Duration)}, skipping the {@code excluded} candidates. */
+    public Match await(WebDriver driver, Duration timeout, Collection<By> excluded) {
+        if (excluded.containsAll(candidates)) return null;
+        Match now = find(driver, excluded);
+        if (now != null) return now;
+        try {
+            return new WebDriverWait(driver, timeout, Duration.ofMillis(250)).until(d -> find(d, excluded));
+        } catch (TimeoutException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + candidates.size() + " candidates)";
+    }
+}
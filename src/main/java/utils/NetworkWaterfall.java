@@ -0,0 +1,278 @@
+package utils;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Optional per-step network instrumentation (config: network.waterfall=true, Chrome/Edge only).
+ *
+ * One DevTools session per browser listens to Network.requestWillBeSent / responseReceived /
+ * loadingFinished / loadingFailed. Requests are attributed to the step during which they were sent;
+ * {@link #endStep} folds them into a {@link Step}: request count, bytes on the wire, failures, requests still
+ * in flight, time from step start to the last byte and the slowest requests (network.slowest, default 5).
+ *
+ * The raw events use the protocol names directly, not a versioned devtools package, so any CDP version works.
+ */
+public final class NetworkWaterfall {
+
+    private static final Map<WebDriver, Recorder> RECORDERS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private NetworkWaterfall() {}
+
+    public static boolean enabled() {
+        return ConfigService.getBoolean("network.waterfall", false);
+    }
+
+    /** Start attributing requests to a new step. No-op for browsers without DevTools. */
+    public static void beginStep(WebDriver driver) {
+        Recorder r = recorder(driver);
+        if (r != null) r.begin();
+    }
+
+    /** Close the current step; null when nothing was being recorded. */
+    public static Step endStep(WebDriver driver, int index) {
+        Recorder r = RECORDERS.get(driver);
+        return r == null ? null : r.end(index);
+    }
+
+    private static Recorder recorder(WebDriver driver) {
+        if (!(driver instanceof HasDevTools)) return null;
+        synchronized (RECORDERS) {
+            Recorder r = RECORDERS.get(driver);
+            if (r == null) {
+                try {
+                    r = new Recorder(((HasDevTools) driver).getDevTools());
+                } catch (Exception e) {
+                    System.out.println("⚠ Network waterfall unavailable: " + e.getMessage());
+                    return null;
+                }
+                RECORDERS.put(driver, r);
+            }
+            return r;
+        }
+    }
+
+    // =================== Model ===================
+
+    /** One request seen during a step. Times are ms from the step start. */
+    public static final class Request {
+        final String url;
+        String type;
+        int status;
+        long bytes;
+        double sentMs;
+        double endMs = -1;
+        boolean failed;
+        // CDP monotonic seconds, for the request's own duration
+        double cdpSent;
+        double cdpEnd;
+
+        Request(String url) { this.url = url; }
+
+        double durationMs() { return endMs < 0 ? -1 : (cdpEnd - cdpSent) * 1000; }
+    }
+
+    /** Network summary of one step. */
+    public static final class Step {
+        public final int index;
+        public final long durationMs;
+        public final int requests;
+        public final long bytes;
+        public final int failed;
+        public final int pending;
+        public final long lastByteMs;
+        private final List<Request> slowest;
+
+        Step(int index, long durationMs, List<Request> all, int keep) {
+            this.index = index;
+            this.durationMs = durationMs;
+            this.requests = all.size();
+            long b = 0, last = 0;
+            int f = 0, p = 0;
+            for (Request r : all) {
+                b += r.bytes;
+                if (r.failed) f++;
+                if (r.endMs < 0) p++;
+                else last = Math.max(last, Math.round(r.endMs));
+            }
+            this.bytes = b;
+            this.failed = f;
+            this.pending = p;
+            this.lastByteMs = last;
+            List<Request> done = new ArrayList<>();
+            for (Request r : all) if (r.endMs >= 0) done.add(r);
+            done.sort(Comparator.comparingDouble(Request::durationMs).reversed());
+            this.slowest = done.subList(0, Math.min(keep, done.size()));
+        }
+
+        /** Share of the step spent before the last byte arrived; near 1.0 means network-bound. */
+        public double networkShare() {
+            return durationMs <= 0 ? 0 : Math.min(1.0, lastByteMs / (double) durationMs);
+        }
+
+        String toJson() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("{\"step\":").append(index)
+              .append(",\"durationMs\":").append(durationMs)
+              .append(",\"requests\":").append(requests)
+              .append(",\"bytes\":").append(bytes)
+              .append(",\"failed\":").append(failed)
+              .append(",\"pending\":").append(pending)
+              .append(",\"lastByteMs\":").append(lastByteMs)
+              .append(",\"slowest\":[");
+            for (int i = 0; i < slowest.size(); i++) {
+                Request r = slowest.get(i);
+                if (i > 0) sb.append(',');
+                sb.append("{\"url\":\"").append(jsonEscape(r.url)).append("\",\"type\":\"").append(jsonEscape(r.type))
+                  .append("\",\"status\":").append(r.status).append(",\"bytes\":").append(r.bytes)
+                  .append(",\"startMs\":").append(Math.round(r.sentMs)).append(",\"ms\":").append(Math.round(r.durationMs()))
+                  .append(r.failed ? ",\"failed\":true}" : "}");
+            }
+            return sb.append("]}").toString();
+        }
+    }
+
+    /** Fixed-width text table of a scenario's steps, for the report. */
+    public static String toText(List<Step> steps) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "%-5s %8s %5s %9s %5s %5s %9s %5s%n", "step", "ms", "reqs", "KB", "fail", "pend", "lastByte", "net%"));
+        for (Step s : steps) {
+            sb.append(String.format(Locale.ROOT, "s%02d   %8d %5d %9.1f %5d %5d %9d %4.0f%%%n", s.index, s.durationMs,
+                    s.requests, s.bytes / 1024.0, s.failed, s.pending, s.lastByteMs, s.networkShare() * 100));
+            for (Request r : s.slowest) {
+                sb.append(String.format(Locale.ROOT, "        %6.0f ms  %3d  %-10s %s%n", r.durationMs(), r.status,
+                        r.type == null ? "" : r.type, shorten(r.url)));
+            }
+        }
+        return sb.toString();
+    }
+
+    /** Write a scenario's steps as JSON; returns the file. */
+    public static Path write(Path file, String scenario, List<Step> steps) throws IOException {
+        StringBuilder sb = new StringBuilder("{\"scenario\":\"").append(jsonEscape(scenario)).append("\",\"steps\":[");
+        for (int i = 0; i < steps.size(); i++) {
+            if (i > 0) sb.append(",\n");
+            sb.append(steps.get(i).toJson());
+        }
+        sb.append("]}\n");
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        return Files.write(file, sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** "12 req, 1.4 MB, 2 failed" over all steps. */
+    public static String summary(List<Step> steps) {
+        int req = 0, failed = 0;
+        long bytes = 0;
+        for (Step s : steps) {
+            req += s.requests;
+            failed += s.failed;
+            bytes += s.bytes;
+        }
+        return String.format(Locale.ROOT, "%d req, %.2f MB%s", req, bytes / 1048576.0, failed > 0 ? ", " + failed + " failed" : "");
+    }
+
+    private static String shorten(String url) {
+        if (url == null) return "";
+        int q = url.indexOf('?');
+        String u = q < 0 ? url : url.substring(0, q);
+        return u.length() <= 100 ? u : u.substring(0, 60) + "..." + u.substring(u.length() - 37);
+    }
+
+    private static String jsonEscape(String s) {
+        if (s == null) return "";
+        StringBuilder sb = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') sb.append('\\').append(c);
+            else if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+            else sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    // =================== Recording ===================
+
+    /** Listener callbacks arrive on the DevTools connection thread; everything is guarded by {@code this}. */
+    private static final class Recorder {
+        private Map<String, Request> current = new LinkedHashMap<>();
+        private long stepStartNanos;
+        private boolean active;
+
+        @SuppressWarnings("unchecked")
+        Recorder(DevTools devTools) {
+            devTools.createSessionIfThereIsNotOne();
+            devTools.send(new Command<>("Network.enable", Collections.emptyMap()));
+            devTools.addListener(event("Network.requestWillBeSent"), m -> {
+                Map<String, Object> req = (Map<String, Object>) m.get("request");
+                synchronized (this) {
+                    if (!active) return;
+                    Request r = new Request(req == null ? "" : String.valueOf(req.get("url")));
+                    r.type = str(m.get("type"));
+                    r.cdpSent = num(m.get("timestamp"));
+                    r.sentMs = sinceStart();
+                    current.put(str(m.get("requestId")), r);
+                }
+            });
+            devTools.addListener(event("Network.responseReceived"), m -> {
+                Map<String, Object> resp = (Map<String, Object>) m.get("response");
+                synchronized (this) {
+                    Request r = active ? current.get(str(m.get("requestId"))) : null;
+                    if (r != null && resp != null) r.status = (int) num(resp.get("status"));
+                }
+            });
+            devTools.addListener(event("Network.loadingFinished"), m -> finish(m, false));
+            devTools.addListener(event("Network.loadingFailed"), m -> finish(m, true));
+        }
+
+        private synchronized void finish(Map<String, Object> m, boolean failed) {
+            // requests outliving their step stay "pending" in that step
+            Request r = active ? current.get(str(m.get("requestId"))) : null;
+            if (r == null) return;
+            r.cdpEnd = num(m.get("timestamp"));
+            r.endMs = sinceStart();
+            r.failed = failed;
+            r.bytes = (long) num(m.get("encodedDataLength"));
+        }
+
+        synchronized void begin() {
+            current = new LinkedHashMap<>();
+            stepStartNanos = System.nanoTime();
+            active = true;
+        }
+
+        synchronized Step end(int index) {
+            if (!active) return null;
+            active = false;
+            long ms = (System.nanoTime() - stepStartNanos) / 1_000_000;
+            return new Step(index, ms, new ArrayList<>(current.values()), ConfigService.getInt("network.slowest", 5));
+        }
+
+        private double sinceStart() {
+            return (System.nanoTime() - stepStartNanos) / 1_000_000.0;
+        }
+
+        private static Event<Map<String, Object>> event(String method) {
+            return new Event<>(method, input -> input.read(Json.MAP_TYPE));
+        }
+
+        private static String str(Object o) { return o == null ? null : o.toString(); }
+        private static double num(Object o) { return o instanceof Number ? ((Number) o).doubleValue() : 0; }
+    }
+}
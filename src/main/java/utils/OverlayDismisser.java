@@ -0,0 +1,132 @@
+package utils;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Detects and closes Amazon's known interstitials in one in-page script:
+ *   - the "Click the button below to continue shopping" page
+ *   - the cookie consent banner (#sp-cc-accept)
+ *   - open popovers / modals (close button, then backdrop, then ESC)
+ *
+ * When nothing is showing the call is a single cheap round trip with no clicks, sleeps or key presses.
+ * Safe to call repeatedly; never throws.
+ */
+public final class OverlayDismisser {
+
+    private static final String SCRIPT =
+            "var done = [];" +
+            "function vis(e) {" +
+            "  if (!e) return false;" +
+            "  var s = getComputedStyle(e);" +
+            "  return s.visibility !== 'hidden' && s.display !== 'none' && e.getClientRects().length > 0;" +
+            "}" +
+            "function label(e) { return ((e.innerText || e.value || e.getAttribute('aria-label') || '') + '').replace(/\\s+/g, ' ').trim().toLowerCase(); }" +
+            // 1) continue-shopping interstitial: a near-empty page whose main CTA says Continue shopping
+            "var body = document.body ? (document.body.innerText || '').toLowerCase() : '';" +
+            "if (body.indexOf('click the button below to continue shopping') >= 0) {" +
+            "  var ctas = document.querySelectorAll('button, input[type=submit], a');" +
+            "  for (var i = 0; i < ctas.length; i++) {" +
+            "    if (vis(ctas[i]) && label(ctas[i]).indexOf('continue shopping') >= 0) {" +
+            "      window.__overlayDismisserMark = true;" +
+            "      window.addEventListener('beforeunload', function () { window.__overlayDismisserLeaving = true; });" +
+            "      ctas[i].click(); done.push('continue-shopping'); return done;" +
+            "    }" +
+            "  }" +
+            "}" +
+            // 2) cookie banner
+            "var cookie = document.querySelector(\"#sp-cc-accept, input[name='accept'], button[name='accept']\");" +
+            "if (vis(cookie)) { cookie.click(); done.push('cookie-accept'); }" +
+            // 3) open popovers / modals: explicit close controls first
+            "var closers = document.querySelectorAll(\"input[name='glowDoneButton'], .a-popover .a-button-close, " +
+            "  .a-modal-scroller .a-button-close, button[aria-label='Close'], button[aria-label='close']\");" +
+            "for (var j = 0; j < closers.length; j++) {" +
+            "  if (vis(closers[j])) { closers[j].click(); done.push('close:' + (closers[j].name || closers[j].className || 'button')); }" +
+            "}" +
+            // 4) still a visible backdrop: click it, then ESC for popovers that only close on keyboard
+            "var backdrops = document.querySelectorAll('.a-popover-overlay, .modal-backdrop');" +
+            "for (var k = 0; k < backdrops.length; k++) {" +
+            "  if (vis(backdrops[k])) {" +
+            "    backdrops[k].click(); done.push('backdrop');" +
+            "    document.dispatchEvent(new KeyboardEvent('keydown', {key: 'Escape', keyCode: 27, which: 27, bubbles: true}));" +
+            "    done.push('escape');" +
+            "    break;" +
+            "  }" +
+            "}" +
+            "return done;";
+
+    private static final Duration NAVIGATION_GRACE = Duration.ofMillis(1500);
+
+    private OverlayDismisser() {}
+
+    /** What a dismiss call did. */
+    public static final class Result {
+        private final List<String> actions;
+        private final long elapsedMs;
+
+        Result(List<String> actions, long elapsedMs) {
+            this.actions = Collections.unmodifiableList(actions);
+            this.elapsedMs = elapsedMs;
+        }
+
+        /** Actions taken in order, e.g. [cookie-accept, close:a-button-close]; empty when the page was clean. */
+        public List<String> getActions() { return actions; }
+        public boolean dismissedAnything() { return !actions.isEmpty(); }
+        public boolean navigated() { return actions.contains("continue-shopping"); }
+        public long getElapsedMs() { return elapsedMs; }
+
+        @Override
+        public String toString() {
+            return (actions.isEmpty() ? "no overlay" : String.join(", ", actions)) + " (" + elapsedMs + " ms)";
+        }
+    }
+
+    /** Close whatever known overlay is showing. If the continue-shopping CTA was used, waits for the next page. */
+    public static Result dismiss(WebDriver driver) {
+        long start = System.nanoTime();
+        List<String> actions = new ArrayList<>();
+        try {
+            Object out = ((JavascriptExecutor) driver).executeScript(SCRIPT);
+            if (out instanceof List) for (Object o : (List<?>) out) actions.add(String.valueOf(o));
+        } catch (Exception e) {
+            System.out.println("[OverlayDismisser] script failed: " + e.getMessage());
+        }
+
+        Result result = new Result(actions, (System.nanoTime() - start) / 1_000_000);
+        if (result.navigated()) awaitNewDocument(driver);
+        if (result.dismissedAnything()) {
+            result = new Result(actions, (System.nanoTime() - start) / 1_000_000);
+            System.out.println("[OverlayDismisser] " + result);
+        }
+        return result;
+    }
+
+    /**
+     * The interstitial CTA reloads the page: wait until the marked document is gone and the new one is parsed
+     * (DOM ready, not fully loaded - that is what eager page loading saves). If the old document never
+     * started unloading within NAVIGATION_GRACE, the click didn't navigate and there is nothing to wait for.
+     */
+    private static void awaitNewDocument(WebDriver driver) {
+        long start = System.nanoTime();
+        try {
+            new WebDriverWait(driver, Duration.ofSeconds(10), Duration.ofMillis(100)).until(d -> {
+                try {
+                    Object state = ((JavascriptExecutor) d).executeScript(
+                            "return window.__overlayDismisserMark"
+                            + " ? (window.__overlayDismisserLeaving ? 'leaving' : 'same') : document.readyState;");
+                    if ("same".equals(state)) return System.nanoTime() - start > NAVIGATION_GRACE.toNanos();
+                    return "interactive".equals(state) || "complete".equals(state);
+                } catch (Exception e) {
+                    // document swapped mid-call
+                    return false;
+                }
+            });
+        } catch (Exception ignored) {}
+    }
+}
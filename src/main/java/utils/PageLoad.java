@@ -0,0 +1,114 @@
+package utils;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Navigation that waits for the page to be usable rather than fully loaded.
+ *
+ * With pageLoadStrategy=eager (DOMContentLoaded) or none (returns at once) the browser no longer waits for
+ * images, ads and iframes, so every navigation is followed by the page's readiness probe instead. The probe
+ * is only evaluated on the new document: the old one is tagged with a marker before navigating, so a
+ * search box still showing on the previous page can't satisfy it.
+ *
+ * Under the default normal strategy the browser has already waited for the full load, so no probe is
+ * enforced: a captcha or interstitial is left to the step that needs the element, as before.
+ *
+ * Config keys:
+ *   pageLoadStrategy      normal (default) | eager | none
+ *   pageLoad.readyTimeout max wait for the probe (default 30s)
+ */
+public final class PageLoad {
+
+    private static final String MARKER = "__pageLoadMarker";
+
+    private PageLoad() {}
+
+    /** Strategy for new browsers. */
+    public static PageLoadStrategy strategy() {
+        return ConfigService.getEnum("pageLoadStrategy", PageLoadStrategy.class, PageLoadStrategy.NORMAL);
+    }
+
+    /** Go to {@code url} and, under eager / none, return once {@code ready} holds on the new document. */
+    public static void navigate(WebDriver driver, String url, ExpectedCondition<?> ready) {
+        if (strategy() == PageLoadStrategy.NORMAL) {
+            driver.navigate().to(url);
+            return;
+        }
+        boolean marked = !sameDocument(driver, url) && mark(driver);
+        driver.navigate().to(url);
+        await(driver, marked, ready, url);
+    }
+
+    /** After a click that loads a new page: tag the current document first with {@link #mark}, then call this. */
+    public static void awaitNewDocument(WebDriver driver, ExpectedCondition<?> ready) {
+        await(driver, true, ready, null);
+    }
+
+    /** Tag the current document so {@link #awaitNewDocument} can tell it from the next one. */
+    public static boolean mark(WebDriver driver) {
+        try {
+            ((JavascriptExecutor) driver).executeScript("window." + MARKER + " = true;");
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /** DOM parsed (readyState interactive or complete); what "ready" means for pages without a probe. */
+    public static boolean domReady(WebDriver driver) {
+        try {
+            Object state = ((JavascriptExecutor) driver).executeScript("return document.readyState");
+            return "interactive".equals(state) || "complete".equals(state);
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    public static void awaitDom(WebDriver driver, Duration timeout) {
+        new WebDriverWait(driver, timeout).until(PageLoad::domReady);
+    }
+
+    private static void await(WebDriver driver, boolean marked, ExpectedCondition<?> ready, String url) {
+        Duration timeout = ConfigService.getDuration("pageLoad.readyTimeout", ChronoUnit.SECONDS, Duration.ofSeconds(30));
+        try {
+            new WebDriverWait(driver, timeout).until(d -> {
+                try {
+                    if (marked && Boolean.TRUE.equals(((JavascriptExecutor) d).executeScript("return window." + MARKER + " === true;"))) {
+                        return false;
+                    }
+                    Object ok = ready.apply(d);
+                    return ok != null && !Boolean.FALSE.equals(ok);
+                } catch (Exception e) {
+                    // document swapped mid-check or still loading
+                    return false;
+                }
+            });
+        } catch (TimeoutException e) {
+            throw new TimeoutException("Page " + (url != null ? url : driver.getCurrentUrl())
+                    + " not ready after " + timeout.getSeconds() + "s (" + ready + ")", e);
+        }
+    }
+
+    // fragment-only changes keep the document, so a marker would never clear
+    private static boolean sameDocument(WebDriver driver, String url) {
+        try {
+            String current = driver.getCurrentUrl();
+            return current != null && strip(current).equals(strip(url)) && url.contains("#");
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static String strip(String url) {
+        int hash = url.indexOf('#');
+        return hash < 0 ? url : url.substring(0, hash);
+    }
+}
@@ -0,0 +1,108 @@
+package utils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Per-thread, lock-free result buffers drained by a single writer thread.
+ *
+ * Workers only {@link #add} to their own queue and never wait on the sink (file / POI). A daemon drainer
+ * collects every queue each drainMillis, sorts the batch (e.g. by completion time) and hands it to the sink,
+ * so the sink always runs on one thread at a time. {@link #flush} drains synchronously, e.g. before reading
+ * the output or at the end of the suite. A queue whose thread has died is dropped once it is drained, so
+ * thread churn (e.g. a pool that replaces workers) doesn't pile up empty queues.
+ */
+public final class ResultBuffer<T> {
+
+    private final String name;
+    private final Comparator<? super T> order;
+    private final Consumer<List<T>> sink;
+    private final long drainNanos;
+
+    private final List<Lane<T>> lanes = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<Lane<T>> local = ThreadLocal.withInitial(() -> {
+        Lane<T> lane = new Lane<>(Thread.currentThread());
+        lanes.add(lane);
+        return lane;
+    });
+    // serializes the sink between the drainer and flush() callers; workers never take it
+    private final Object drainLock = new Object();
+    private volatile Thread drainer;
+    private volatile boolean closed;
+
+    /** One producer thread's queue. */
+    private static final class Lane<T> {
+        final Thread owner;
+        final Queue<T> queue = new ConcurrentLinkedQueue<>();
+
+        Lane(Thread owner) { this.owner = owner; }
+    }
+
+    public ResultBuffer(String name, long drainMillis, Comparator<? super T> order, Consumer<List<T>> sink) {
+        this.name = name;
+        this.order = order;
+        this.sink = sink;
+        this.drainNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, drainMillis));
+    }
+
+    /** Queue one item on the calling thread's buffer. Never blocks. */
+    public void add(T item) {
+        local.get().queue.offer(item);
+        if (drainer == null) startDrainer();
+    }
+
+    /** Drain everything queued so far into the sink, on the calling thread. */
+    public void flush() {
+        synchronized (drainLock) {
+            List<T> batch = new ArrayList<>();
+            List<Lane<T>> dead = new ArrayList<>();
+            for (Lane<T> lane : lanes) {
+                // checked before draining: a dead thread can't add after this point
+                boolean alive = lane.owner.isAlive();
+                T item;
+                while ((item = lane.queue.poll()) != null) batch.add(item);
+                if (!alive) dead.add(lane);
+            }
+            if (!dead.isEmpty()) lanes.removeAll(dead);
+            if (batch.isEmpty()) return;
+            batch.sort(order);
+            try {
+                sink.accept(batch);
+            } catch (Exception e) {
+                System.out.println("⚠ " + name + " could not write " + batch.size() + " buffered result(s): " + e.getMessage());
+            }
+        }
+    }
+
+    /** Stop the drainer and write whatever is left. Later adds restart it. */
+    public void close() {
+        closed = true;
+        Thread t = drainer;
+        if (t != null) LockSupport.unpark(t);
+        flush();
+    }
+
+    private synchronized void startDrainer() {
+        if (drainer != null) return;
+        closed = false;
+        Thread t = new Thread(() -> {
+            while (!closed) {
+                LockSupport.parkNanos(drainNanos);
+                flush();
+            }
+            synchronized (this) {
+                if (drainer == Thread.currentThread()) drainer = null;
+            }
+        }, name + "-drainer");
+        t.setDaemon(true);
+        drainer = t;
+        t.start();
+    }
+}
@@ -0,0 +1,181 @@
+package utils;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Turns {@link ResultJournal} entries into report files under test-output:
+ * TestResults.xlsx, TestResults.csv and junit-results.xml (config: results.exports, default "xlsx,csv,junit").
+ *
+ * Runs at the end of the suite, or on demand after an aborted run:
+ *   java -cp ... utils.ResultExporters [journal.jsonl] [runId]
+ */
+public final class ResultExporters {
+
+    private ResultExporters() {}
+
+    /** Export this JVM's run in every configured format. */
+    public static void exportAll() {
+        exportAll(ResultJournal.currentRun());
+    }
+
+    public static void exportAll(List<ResultJournal.Entry> entries) {
+        Path dir = Paths.get("test-output");
+        for (String format : ConfigService.getString("results.exports", "xlsx,csv,junit").toLowerCase(Locale.ROOT).split("\\s*,\\s*")) {
+            try {
+                switch (format) {
+                    case "xlsx":  ResultsExcelWriter.export(entries, dir.resolve("TestResults.xlsx")); break;
+                    case "csv":   csv(entries, dir.resolve("TestResults.csv")); break;
+                    case "junit": junit(entries, dir.resolve("junit-results.xml")); break;
+                    case "":      break;
+                    default:      System.out.println("⚠ Unknown results export format: " + format);
+                }
+            } catch (IOException e) {
+                System.out.println("⚠ Results export (" + format + ") failed: " + e.getMessage());
+            }
+        }
+        System.out.println("[ResultExporters] exported " + entries.size() + " results to " + dir);
+    }
+
+    // =================== CSV ===================
+
+    public static void csv(List<ResultJournal.Entry> entries, Path dest) throws IOException {
+        writeAtomically(dest, w -> {
+            w.write("run,timestamp,source,suite,name,status,durationMs,screenshot,error,network\r\n");
+            for (ResultJournal.Entry e : entries) {
+                w.write(String.join(",",
+                        csvCell(e.getRun()),
+                        csvCell(Instant.ofEpochMilli(e.getTimestamp()).toString()),
+                        csvCell(e.getSource()),
+                        csvCell(e.getSuite()),
+                        csvCell(e.getName()),
+                        csvCell(e.getStatus()),
+                        Long.toString(e.getDurationMs()),
+                        csvCell(e.getScreenshot()),
+                        csvCell(e.getError()),
+                        csvCell(e.getNetwork())));
+                w.write("\r\n");
+            }
+        });
+    }
+
+    private static String csvCell(String v) {
+        if (v == null) return "";
+        if (v.indexOf(',') < 0 && v.indexOf('"') < 0 && v.indexOf('\n') < 0 && v.indexOf('\r') < 0) return v;
+        return '"' + v.replace("\"", "\"\"") + '"';
+    }
+
+    // =================== JUnit XML ===================
+
+    /** One testsuite per suite (class / feature), in first-seen order. */
+    public static void junit(List<ResultJournal.Entry> entries, Path dest) throws IOException {
+        Map<String, List<ResultJournal.Entry>> suites = new LinkedHashMap<>();
+        for (ResultJournal.Entry e : entries) {
+            suites.computeIfAbsent(e.getSuite() == null ? "default" : e.getSuite(), k -> new java.util.ArrayList<>()).add(e);
+        }
+        writeAtomically(dest, w -> {
+            w.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+            w.write("<testsuites tests=\"" + entries.size() + "\" failures=\"" + count(entries, "FAIL")
+                    + "\" skipped=\"" + count(entries, "SKIP") + "\" time=\"" + seconds(totalMs(entries)) + "\">\n");
+            for (Map.Entry<String, List<ResultJournal.Entry>> s : suites.entrySet()) {
+                List<ResultJournal.Entry> cases = s.getValue();
+                w.write("  <testsuite name=\"" + xml(s.getKey()) + "\" tests=\"" + cases.size()
+                        + "\" failures=\"" + count(cases, "FAIL") + "\" skipped=\"" + count(cases, "SKIP")
+                        + "\" time=\"" + seconds(totalMs(cases)) + "\">\n");
+                for (ResultJournal.Entry e : cases) {
+                    w.write("    <testcase classname=\"" + xml(s.getKey()) + "\" name=\"" + xml(e.getName())
+                            + "\" time=\"" + seconds(e.getDurationMs()) + "\"");
+                    if ("FAIL".equalsIgnoreCase(e.getStatus())) {
+                        w.write(">\n      <failure message=\"" + xml(firstLine(e.getError())) + "\">"
+                                + xml(e.getError()) + "</failure>\n    </testcase>\n");
+                    } else if ("SKIP".equalsIgnoreCase(e.getStatus())) {
+                        w.write(">\n      <skipped/>\n    </testcase>\n");
+                    } else {
+                        w.write("/>\n");
+                    }
+                }
+                w.write("  </testsuite>\n");
+            }
+            w.write("</testsuites>\n");
+        });
+    }
+
+    private static long count(List<ResultJournal.Entry> entries, String status) {
+        return entries.stream().filter(e -> status.equalsIgnoreCase(e.getStatus())).count();
+    }
+
+    private static long totalMs(List<ResultJournal.Entry> entries) {
+        return entries.stream().mapToLong(ResultJournal.Entry::getDurationMs).sum();
+    }
+
+    private static String seconds(long ms) {
+        return String.format(Locale.ROOT, "%.3f", ms / 1000.0);
+    }
+
+    private static String firstLine(String s) {
+        if (s == null) return "";
+        int nl = s.indexOf('\n');
+        return nl < 0 ? s : s.substring(0, nl);
+    }
+
+    private static String xml(String s) {
+        if (s == null) return "";
+        StringBuilder sb = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '<':  sb.append("&lt;"); break;
+                case '>':  sb.append("&gt;"); break;
+                case '&':  sb.append("&amp;"); break;
+                case '"':  sb.append("&quot;"); break;
+                default:
+                    // characters XML 1.0 cannot carry at all
+                    if (c < 0x20 && c != '\n' && c != '\r' && c != '\t') sb.append('?');
+                    else sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    // =================== Helpers ===================
+
+    private interface Body {
+        void write(Writer w) throws IOException;
+    }
+
+    private static void writeAtomically(Path dest, Body body) throws IOException {
+        Path abs = dest.toAbsolutePath();
+        Files.createDirectories(abs.getParent());
+        Path tmp = Files.createTempFile(abs.getParent(), ".export-", ".tmp");
+        try {
+            try (Writer w = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                body.write(w);
+            }
+            try {
+                Files.move(tmp, abs, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, abs, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /** Re-export from a journal, e.g. after a CI job was killed before the suite finished. */
+    public static void main(String[] args) {
+        Path journal = args.length > 0 ? Paths.get(args[0]) : ResultJournal.file();
+        String run = args.length > 1 ? args[1] : null;
+        exportAll(ResultJournal.read(journal, run));
+    }
+}
@@ -0,0 +1,384 @@
+package utils;
+
+import org.openqa.selenium.json.Json;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Append-only JSON Lines journal of test results: the source of truth the XLSX/CSV/JUnit files
+ * are exported from (see {@link ResultExporters}).
+ *
+ * Each append is written through immediately (one short FileChannel write, so a killed JVM loses nothing
+ * that was appended) and fsynced in batches - every results.fsyncEvery lines or results.fsyncMillis ms,
+ * and on close/exit - so a machine crash loses at most one batch. Batch fsyncs run on a single background
+ * thread, outside the lock, so a slow disk flush never stalls the workers that are appending. Every line carries the run id; readers
+ * skip a torn last line. Only the POI-backed writers buffer (see {@link ResultBuffer}).
+ *
+ * File: test-output/results.jsonl (results.journal). Lines from earlier runs stay; exports pick one run.
+ * This JVM remembers where its own run starts in the file, so reading the current run never re-reads history.
+ */
+public final class ResultJournal {
+
+    /** Identifies this JVM's run inside a journal that may hold several. */
+    public static final String RUN_ID = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"))
+            + "_" + ManagementFactory.getRuntimeMXBean().getName().split("@")[0];
+
+    private static final Object LOCK = new Object();
+    private static final AtomicLong SEQ = new AtomicLong();
+
+    private static final ExecutorService FSYNC = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "result-journal-fsync");
+        t.setDaemon(true);
+        return t;
+    });
+
+    static {
+        // fsync the last batch when the JVM exits normally
+        Runtime.getRuntime().addShutdownHook(new Thread(ResultJournal::close, "result-journal-close"));
+    }
+
+    private static FileChannel channel;
+    // byte offset of this JVM's first line; -1 until the first append
+    private static volatile long runStart = -1;
+    private static int unsynced;
+    private static long lastSyncNanos;
+    // a batch fsync is queued or running; further batches wait for it instead of piling up
+    private static boolean fsyncQueued;
+
+    private ResultJournal() {}
+
+    /** One journaled result. */
+    public static final class Entry {
+        private final String run;
+        private final long seq;
+        private final long timestamp;
+        private final String source;
+        private final String suite;
+        private final String name;
+        private final String status;
+        private final long durationMs;
+        private final String screenshot;
+        private final String error;
+        private final String network;
+
+        public Entry(String run, long seq, long timestamp, String source, String suite, String name,
+                     String status, long durationMs, String screenshot, String error) {
+            this(run, seq, timestamp, source, suite, name, status, durationMs, screenshot, error, null);
+        }
+
+        public Entry(String run, long seq, long timestamp, String source, String suite, String name,
+                     String status, long durationMs, String screenshot, String error, String network) {
+            this.run = run;
+            this.seq = seq;
+            this.timestamp = timestamp;
+            this.source = source;
+            this.suite = suite;
+            this.name = name;
+            this.status = status;
+            this.durationMs = durationMs;
+            this.screenshot = screenshot;
+            this.error = error;
+            this.network = network;
+        }
+
+        public String getRun() { return run; }
+        /** Order of the append within its run. */
+        public long getSeq() { return seq; }
+        /** Epoch millis when the result was recorded. */
+        public long getTimestamp() { return timestamp; }
+        /** "testng" or "cucumber". */
+        public String getSource() { return source; }
+        /** Test class or feature file. */
+        public String getSuite() { return suite; }
+        public String getName() { return name; }
+        /** PASS / FAIL / SKIP */
+        public String getStatus() { return status; }
+        public long getDurationMs() { return durationMs; }
+        /** May be null. */
+        public String getScreenshot() { return screenshot; }
+        /** Failure message, may be null. */
+        public String getError() { return error; }
+        /** Network waterfall file (network.waterfall), may be null. */
+        public String getNetwork() { return network; }
+
+        String toJson() {
+            StringBuilder sb = new StringBuilder(160);
+            sb.append('{');
+            field(sb, "run", run).append(',');
+            sb.append("\"seq\":").append(seq).append(',');
+            sb.append("\"ts\":").append(timestamp).append(',');
+            field(sb, "source", source).append(',');
+            field(sb, "suite", suite).append(',');
+            field(sb, "name", name).append(',');
+            field(sb, "status", status).append(',');
+            sb.append("\"durationMs\":").append(durationMs).append(',');
+            field(sb, "screenshot", screenshot).append(',');
+            field(sb, "error", error);
+            if (network != null) field(sb.append(','), "network", network);
+            return sb.append('}').toString();
+        }
+
+        static Entry fromJson(Map<String, Object> m) {
+            return new Entry(str(m.get("run")), num(m.get("seq")), num(m.get("ts")), str(m.get("source")),
+                    str(m.get("suite")), str(m.get("name")), str(m.get("status")), num(m.get("durationMs")),
+                    str(m.get("screenshot")), str(m.get("error")), str(m.get("network")));
+        }
+
+        private static String str(Object o) { return o == null ? null : o.toString(); }
+        private static long num(Object o) { return o instanceof Number ? ((Number) o).longValue() : 0L; }
+
+        @Override
+        public String toString() { return status + " " + suite + " > " + name + " (" + durationMs + " ms)"; }
+    }
+
+    /** Record one result for this run. Safe to call from any thread; the line is on disk (in the OS cache) on return. */
+    public static Entry append(String source, String suite, String name, String status,
+                               long durationMs, String screenshot, String error) {
+        return append(source, suite, name, status, durationMs, screenshot, error, null);
+    }
+
+    public static Entry append(String source, String suite, String name, String status,
+                               long durationMs, String screenshot, String error, String network) {
+        Entry e;
+        FileChannel toSync = null;
+        synchronized (LOCK) {
+            // seq is taken under the lock so the file is in seq order
+            e = new Entry(RUN_ID, SEQ.incrementAndGet(), System.currentTimeMillis(), source, suite, name,
+                    status, durationMs, screenshot, error, network);
+            ByteBuffer buf = ByteBuffer.wrap((e.toJson() + "\n").getBytes(StandardCharsets.UTF_8));
+            try {
+                FileChannel ch = open();
+                while (buf.hasRemaining()) ch.write(buf);
+                unsynced++;
+                if (!fsyncQueued && (unsynced >= ConfigService.getInt("results.fsyncEvery", 20)
+                        || System.nanoTime() - lastSyncNanos >= TimeUnit.MILLISECONDS.toNanos(ConfigService.getLong("results.fsyncMillis", 1000)))) {
+                    toSync = takeBatchLocked();
+                    fsyncQueued = true;
+                }
+            } catch (IOException ex) {
+                System.out.println("⚠ Result journal append failed (" + e + "): " + ex.getMessage());
+            }
+        }
+        if (toSync != null) {
+            FileChannel ch = toSync;
+            FSYNC.execute(() -> {
+                try {
+                    force(ch);
+                } finally {
+                    synchronized (LOCK) { fsyncQueued = false; }
+                }
+            });
+        }
+        return e;
+    }
+
+    /** Force everything appended so far to disk. */
+    public static void sync() {
+        FileChannel ch;
+        synchronized (LOCK) {
+            ch = channel;
+            takeBatchLocked();
+        }
+        // forced even when nothing is pending here: a queued background batch may not have reached the disk yet
+        if (ch != null) force(ch);
+    }
+
+    /** Sync and close; a later append reopens the file. */
+    public static void close() {
+        FileChannel ch;
+        synchronized (LOCK) {
+            ch = channel;
+            if (ch == null) return;
+            takeBatchLocked();
+            channel = null;
+        }
+        force(ch);
+        try { ch.close(); } catch (IOException ignored) {}
+    }
+
+    public static Path file() {
+        return Paths.get(ConfigService.getString("results.journal", "test-output/results.jsonl"));
+    }
+
+    // =================== Reading ===================
+
+    /** Entries of this JVM's run, in append order. */
+    public static List<Entry> currentRun() {
+        List<Entry> out = new ArrayList<>();
+        forEachInCurrentRun(out::add);
+        return out;
+    }
+
+    /** Stream this JVM's run, in append order, without holding it in memory. Returns the number of entries. */
+    public static int forEachInCurrentRun(Consumer<Entry> action) {
+        long start = runStart;
+        if (start < 0) return 0;
+        int[] n = { 0 };
+        forEach(file(), start, e -> {
+            if (RUN_ID.equals(e.getRun())) {
+                action.accept(e);
+                n[0]++;
+            }
+        });
+        return n[0];
+    }
+
+    /**
+     * Stream the complete lines from byte offset {@code from} on; returns the offset after the last complete
+     * line, so a caller can resume there. Lines that don't parse are skipped.
+     */
+    public static long forEach(Path file, long from, Consumer<Entry> action) {
+        if (!Files.exists(file)) return from;
+        long pos = from;
+        int torn = 0;
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            long skipped = 0;
+            while (skipped < from) {
+                long k = in.skip(from - skipped);
+                if (k <= 0) return from;
+                skipped += k;
+            }
+            ByteArrayOutputStream line = new ByteArrayOutputStream(256);
+            int b;
+            while ((b = in.read()) >= 0) {
+                if (b != '\n') {
+                    line.write(b);
+                    continue;
+                }
+                pos += line.size() + 1;
+                String text = new String(line.toByteArray(), StandardCharsets.UTF_8);
+                line.reset();
+                if (text.isBlank()) continue;
+                Map<String, Object> m = parse(text);
+                if (m == null) torn++;
+                else action.accept(Entry.fromJson(m));
+            }
+            // an unterminated last line is still being written (or torn); the next call picks it up
+        } catch (IOException e) {
+            System.out.println("⚠ Could not read result journal " + file + ": " + e.getMessage());
+        }
+        if (torn > 0) System.out.println("⚠ Skipped " + torn + " incomplete line(s) in " + file);
+        return pos;
+    }
+
+    /**
+     * Entries of one run ({@code run} null = the last run in the file), in append order.
+     * Lines that don't parse - typically the last one of a killed run - are skipped.
+     */
+    public static List<Entry> read(Path file, String run) {
+        List<Entry> all = new ArrayList<>();
+        if (!Files.exists(file)) return all;
+        int torn = 0;
+        try (BufferedReader r = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = r.readLine()) != null) {
+                if (line.isBlank()) continue;
+                Map<String, Object> m = parse(line);
+                if (m == null) { torn++; continue; }
+                all.add(Entry.fromJson(m));
+            }
+        } catch (IOException e) {
+            System.out.println("⚠ Could not read result journal " + file + ": " + e.getMessage());
+        }
+        if (torn > 0) System.out.println("⚠ Skipped " + torn + " incomplete line(s) in " + file);
+
+        String wanted = run;
+        if (wanted == null && !all.isEmpty()) wanted = all.get(all.size() - 1).getRun();
+        List<Entry> out = new ArrayList<>();
+        for (Entry e : all) if (e.getRun() != null && e.getRun().equals(wanted)) out.add(e);
+        return out;
+    }
+
+    // =================== Internals ===================
+
+    private static FileChannel open() throws IOException {
+        if (channel == null) {
+            Path f = file();
+            if (f.toAbsolutePath().getParent() != null) Files.createDirectories(f.toAbsolutePath().getParent());
+            // a killed run can leave a torn line without its newline; don't glue our first line onto it
+            boolean torn = false;
+            if (Files.exists(f) && Files.size(f) > 0) {
+                try (FileChannel in = FileChannel.open(f, StandardOpenOption.READ)) {
+                    ByteBuffer last = ByteBuffer.allocate(1);
+                    in.read(last, in.size() - 1);
+                    torn = last.get(0) != '\n';
+                }
+            }
+            channel = FileChannel.open(f, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            if (torn) channel.write(ByteBuffer.wrap(new byte[] { '\n' }));
+            if (runStart < 0) runStart = channel.size();
+            lastSyncNanos = System.nanoTime();
+        }
+        return channel;
+    }
+
+    /** Start a new batch; returns the channel holding the previous one, or null when nothing is pending. */
+    private static FileChannel takeBatchLocked() {
+        FileChannel ch = unsynced > 0 ? channel : null;
+        unsynced = 0;
+        lastSyncNanos = System.nanoTime();
+        return ch;
+    }
+
+    private static void force(FileChannel ch) {
+        try {
+            ch.force(false);
+        } catch (ClosedChannelException ignored) {
+            // closed meanwhile; close() forces before closing
+        } catch (IOException ex) {
+            System.out.println("⚠ Result journal sync failed: " + ex.getMessage());
+        }
+    }
+
+    private static StringBuilder field(StringBuilder sb, String key, String value) {
+        sb.append('"').append(key).append("\":");
+        if (value == null) return sb.append("null");
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':  sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+            }
+        }
+        return sb.append('"');
+    }
+
+    /** Parse one journal line; null if malformed (typically the torn last line of a killed run). */
+    static Map<String, Object> parse(String line) {
+        try {
+            return new Json().toType(line, Json.MAP_TYPE);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
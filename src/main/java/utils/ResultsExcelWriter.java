@@ -2,69 +2,73 @@ package utils;
 
 import org.apache.poi.common.usermodel.HyperlinkType;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 
 /**
  * Thread-safe helper that writes one Excel row per test:
  *   | Test | Status | Screenshot |
  *
  * File is created at: test-output/TestResults.xlsx
+ *
+ * Rows go to the {@link ResultJournal} (the crash-safe source of truth); the workbook is an export of it.
+ * It is streamed out with SXSSF (only results.rowWindow rows in memory) at checkpoints and at close(), where
+ * the other {@link ResultExporters} formats are written too. A checkpoint reads only this run's part of the
+ * journal and rewrites the file, so its cost grows with the rows already exported; the spacing grows with them
+ * too - at least results.checkpointRows rows (or results.checkpointSeconds seconds) and never fewer rows than the
+ * last export held - which keeps the total checkpoint work linear in the run. append() only bumps counters;
+ * checkpoints run on their own thread, and one that is already in progress is not queued again.
  */
 public final class ResultsExcelWriter {
 
+    private static final String[] HEADER = { "Test", "Status", "Screenshot" };
+
     private static final Object LOCK = new Object();
+    private static final ReentrantLock WRITE = new ReentrantLock();
 
-    private static Workbook wb;
-    private static Sheet sheet;
-    private static int nextRowIndex = 1; // 0 = header row
-    private static File outFile;
+    private static final ExecutorService CHECKPOINTS = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "results-xlsx-checkpoint");
+        t.setDaemon(true);
+        return t;
+    });
+    private static final AtomicInteger ROWS_SINCE_CHECKPOINT = new AtomicInteger();
+    private static final AtomicLong LAST_CHECKPOINT_NANOS = new AtomicLong(System.nanoTime());
+    // rows in the last checkpoint; spaces the next one
+    private static volatile int lastExported;
 
-    // cached hyperlink style
-    private static CellStyle hyperlinkStyle;
+    private static volatile File outFile;
 
     private ResultsExcelWriter() {}
 
     /** Call once (e.g., in @BeforeSuite). Creates file + header row. */
     public static void init() {
         synchronized (LOCK) {
-            if (wb != null) return; // already initialized
-
-            try {
-                // ensure folder exists
-                File outDir = new File("test-output");
-                if (!outDir.exists()) outDir.mkdirs();
-
-                outFile = new File(outDir, "TestResults.xlsx");
-
-                wb = new XSSFWorkbook();
-                sheet = wb.createSheet("Results");
-
-                // header
-                Row header = sheet.createRow(0);
-                header.createCell(0).setCellValue("Test");
-                header.createCell(1).setCellValue("Status");
-                header.createCell(2).setCellValue("Screenshot");
-
-                // style for screenshot links
-                Font linkFont = wb.createFont();
-                linkFont.setUnderline(Font.U_SINGLE);
-                linkFont.setColor(IndexedColors.BLUE.getIndex());
-                hyperlinkStyle = wb.createCellStyle();
-                hyperlinkStyle.setFont(linkFont);
-
-                autosize();
-                // write an empty workbook with header immediately (helps if build is aborted)
-                try (FileOutputStream fos = new FileOutputStream(outFile)) {
-                    wb.write(fos);
-                }
-            } catch (IOException e) {
-                throw new RuntimeException("Unable to init ResultsExcelWriter", e);
-            }
+            if (outFile != null) return; // already initialized
+
+            // ensure folder exists
+            File outDir = new File("test-output");
+            if (!outDir.exists()) outDir.mkdirs();
+
+            outFile = new File(outDir, "TestResults.xlsx");
+            LAST_CHECKPOINT_NANOS.set(System.nanoTime());
         }
+        // write an empty workbook with header immediately (helps if build is aborted)
+        checkpoint(true);
     }
 
     /**
@@ -74,60 +78,155 @@ public final class ResultsExcelWriter {
      * @param screenshot Relative or absolute path to the .png (can be null)
      */
     public static void append(String testName, String status, String screenshot) {
-        synchronized (LOCK) {
-            if (wb == null || sheet == null) {
-                // guard in case init() was forgotten
-                init();
-            }
-
-            Row row = sheet.createRow(nextRowIndex++);
-            row.createCell(0).setCellValue(testName);
-            row.createCell(1).setCellValue(status);
-
-            if (screenshot != null && !screenshot.isBlank()) {
-                Cell cell = row.createCell(2);
-                cell.setCellValue(screenshot);
-
-                CreationHelper helper = wb.getCreationHelper();
-                Hyperlink link = helper.createHyperlink(HyperlinkType.FILE);
-                // Excel is OK with relative paths; absolute also fine
-                link.setAddress(screenshot.replace('\\', '/'));
-                cell.setHyperlink(link);
-                cell.setCellStyle(hyperlinkStyle);
-            }
-
-            autosize();
+        append(null, testName, status, screenshot, 0, null);
+    }
 
-            // write partial updates so you can open while the run is ongoing
-            flushQuietly();
+    /** Append one row with the extra journal fields (suite = test class, error = failure message). */
+    public static void append(String suite, String testName, String status, String screenshot,
+                              long durationMs, String error) {
+        if (outFile == null) {
+            // guard in case init() was forgotten
+            init();
+        }
+        ResultJournal.append("testng", suite, testName, status, durationMs,
+                screenshot == null || screenshot.isBlank() ? null : screenshot, error);
+
+        // partial updates on an interval so you can open the file while the run is ongoing
+        int rows = ROWS_SINCE_CHECKPOINT.incrementAndGet();
+        long last = LAST_CHECKPOINT_NANOS.get();
+        int everyRows = Math.max(1, ConfigService.getInt("results.checkpointRows", 200));
+        // a checkpoint rewrites lastExported rows, so wait for at least that many new ones (or proportionally longer)
+        long scale = Math.max(1, lastExported / everyRows);
+        boolean due = rows >= Math.max(everyRows, lastExported)
+                || System.nanoTime() - last >= TimeUnit.SECONDS.toNanos(ConfigService.getLong("results.checkpointSeconds", 30)) * scale;
+        // one worker wins the CAS and hands the export to the checkpoint thread
+        if (due && LAST_CHECKPOINT_NANOS.compareAndSet(last, System.nanoTime())) {
+            ROWS_SINCE_CHECKPOINT.set(0);
+            CHECKPOINTS.execute(() -> checkpoint(false));
         }
     }
 
-    /** Call once (e.g., in @AfterSuite). */
+    /** Call once (e.g., in @AfterSuite). Closes the journal and writes every configured export. */
     public static void close() {
         synchronized (LOCK) {
-            if (wb == null) return;
-            flushQuietly(); // ensure latest rows on disk
-            try {
-                wb.close();
-            } catch (IOException ignored) {}
-            wb = null;
-            sheet = null;
+            if (outFile == null) return;
+            outFile = null;
+        }
+        ResultJournal.close();
+        WRITE.lock();
+        try {
+            ResultExporters.exportAll();
+        } finally {
+            WRITE.unlock();
         }
     }
 
-    private static void autosize() {
-        if (sheet != null) {
-            for (int c = 0; c <= 2; c++) {
-                sheet.autoSizeColumn(c, true);
-            }
+    /** Stream the journal out; a non-final checkpoint is skipped while another write is still running. */
+    private static void checkpoint(boolean wait) {
+        if (wait) {
+            WRITE.lock();
+        } else if (!WRITE.tryLock()) {
+            return;
+        }
+        // read under WRITE: once close() has started, a late checkpoint must not replace the final file
+        File target = outFile;
+        Path dest = target == null ? null : target.toPath();
+        try {
+            if (dest != null) lastExported = write(ResultJournal::forEachInCurrentRun, dest);
+        } catch (IOException e) {
+            System.out.println("⚠ ResultsExcelWriter could not write " + dest + ": " + e.getMessage());
+        } finally {
+            WRITE.unlock();
+        }
+    }
+
+    /** Write entries as the Test | Status | Screenshot workbook. */
+    public static void export(List<ResultJournal.Entry> entries, Path dest) throws IOException {
+        WRITE.lock();
+        try {
+            write(action -> {
+                entries.forEach(action);
+                return entries.size();
+            }, dest);
+        } finally {
+            WRITE.unlock();
         }
     }
 
-    private static void flushQuietly() {
-        if (wb == null || outFile == null) return;
-        try (FileOutputStream fos = new FileOutputStream(outFile)) {
-            wb.write(fos);
-        } catch (IOException ignored) {}
+    /** Feeds entries one at a time, so a checkpoint never holds the run in memory; returns how many. */
+    private interface EntrySource {
+        int forEach(Consumer<ResultJournal.Entry> action) throws IOException;
+    }
+
+    // rows go straight into the SXSSF window; only results.rowWindow of them are ever in memory
+    private static int write(EntrySource entries, Path file) throws IOException {
+        int window = Math.max(1, ConfigService.getInt("results.rowWindow", 100));
+        Path dest = file.toAbsolutePath();
+        Files.createDirectories(dest.getParent());
+        Path tmp = Files.createTempFile(dest.getParent(), ".results-", ".xlsx");
+        SXSSFWorkbook wb = new SXSSFWorkbook(window);
+        int count;
+        try {
+            Sheet sheet = wb.createSheet("Results");
+
+            // header
+            Row header = sheet.createRow(0);
+            for (int c = 0; c < HEADER.length; c++) header.createCell(c).setCellValue(HEADER[c]);
+
+            // style for screenshot links
+            Font linkFont = wb.createFont();
+            linkFont.setUnderline(Font.U_SINGLE);
+            linkFont.setColor(IndexedColors.BLUE.getIndex());
+            CellStyle hyperlinkStyle = wb.createCellStyle();
+            hyperlinkStyle.setFont(linkFont);
+            CreationHelper helper = wb.getCreationHelper();
+
+            // column sizing from max widths (autoSizeColumn would need every row in memory)
+            int[] widths = new int[HEADER.length];
+            for (int c = 0; c < HEADER.length; c++) widths[c] = HEADER[c].length();
+            int[] next = { 1 }; // 0 = header row
+
+            count = entries.forEach(e -> {
+                String[] values = { e.getName(), e.getStatus(), e.getScreenshot() };
+                for (int c = 0; c < values.length; c++) {
+                    if (values[c] != null) widths[c] = Math.max(widths[c], values[c].length());
+                }
+                Row row = sheet.createRow(next[0]++);
+                row.createCell(0).setCellValue(values[0]);
+                row.createCell(1).setCellValue(values[1]);
+
+                if (values[2] != null) {
+                    Cell cell = row.createCell(2);
+                    cell.setCellValue(values[2]);
+
+                    Hyperlink link = helper.createHyperlink(HyperlinkType.FILE);
+                    // Excel is OK with relative paths; absolute also fine
+                    link.setAddress(values[2].replace('\\', '/'));
+                    cell.setHyperlink(link);
+                    cell.setCellStyle(hyperlinkStyle);
+                }
+            });
+
+            // column widths live in the sheet header, so they can be set after the rows were flushed
+            for (int c = 0; c < widths.length; c++) {
+                sheet.setColumnWidth(c, Math.min(255, widths[c] + 2) * 256);
+            }
+
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                wb.write(out);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        } finally {
+            wb.dispose(); // delete SXSSF's temp files
+            wb.close();
+        }
+        try {
+            Files.move(tmp, dest, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, dest, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return count;
     }
 }
@@ -11,6 +11,9 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Creates an Excel "Results_Index.xlsx" inside the per-run screenshots folder.
@@ -20,20 +23,44 @@ import java.time.format.DateTimeFormatter;
  *   ResultsWorkbook.start(runFolder);
  *   ResultsWorkbook.log(testName, status, screenshotPath);
  *   ResultsWorkbook.finish();
+ *
+ * log() only queues the row on the calling thread's {@link ResultBuffer}; a single drainer adds the rows to
+ * the sheet in completion order, so parallel workers never wait on POI.
  */
 public final class ResultsWorkbook {
 
     private static final DateTimeFormatter TS = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
-    private static Workbook wb;           // <-- interface (close() throws IOException)
+    private static volatile Workbook wb;  // <-- interface (close() throws IOException)
     private static Sheet sheet;
     private static int nextRow = 0;
 
     private static String runFolder;
     private static File outFile;
 
+    private static final AtomicLong SEQ = new AtomicLong();
+    private static final ResultBuffer<Pending> BUFFER = new ResultBuffer<>("results-workbook",
+            ConfigService.getLong("results.drainMillis", 200),
+            Comparator.comparing((Pending p) -> p.at).thenComparingLong(p -> p.seq),
+            ResultsWorkbook::writeRows);
+
     private ResultsWorkbook() {}
 
+    /** A logged row waiting for the drainer. */
+    private static final class Pending {
+        final LocalDateTime at = LocalDateTime.now();
+        final long seq = SEQ.incrementAndGet();
+        final String testName;
+        final String status;
+        final String screenshotPath;
+
+        Pending(String testName, String status, String screenshotPath) {
+            this.testName = testName;
+            this.status = status;
+            this.screenshotPath = screenshotPath;
+        }
+    }
+
     /** Create the run folder (if needed) and start a fresh workbook. */
     public static synchronized void start(String runFolderPath) {
         try {
@@ -69,15 +96,26 @@ public final class ResultsWorkbook {
         }
     }
 
-    /** Append one row for a test. screenshotPath can be null. */
-    public static synchronized void log(String testName, String status, String screenshotPath) {
+    /** Append one row for a test. screenshotPath can be null. Never blocks on the workbook. */
+    public static void log(String testName, String status, String screenshotPath) {
+        if (wb == null) return;
+        BUFFER.add(new Pending(testName, status, screenshotPath));
+    }
+
+    // drainer thread (or finish()): the only place rows are added to the sheet
+    private static synchronized void writeRows(List<Pending> batch) {
+        for (Pending p : batch) writeRow(p);
+    }
+
+    private static void writeRow(Pending p) {
         if (wb == null || sheet == null) return;
+        String screenshotPath = p.screenshotPath;
 
         try {
             Row row = sheet.createRow(nextRow++);
-            row.createCell(0).setCellValue(LocalDateTime.now().format(TS));
-            row.createCell(1).setCellValue(nullToEmpty(testName));
-            row.createCell(2).setCellValue(nullToEmpty(status));
+            row.createCell(0).setCellValue(p.at.format(TS));
+            row.createCell(1).setCellValue(nullToEmpty(p.testName));
+            row.createCell(2).setCellValue(nullToEmpty(p.status));
 
             // Screenshot cell with hyperlink if path present
             Cell shotCell = row.createCell(3);
@@ -109,7 +147,13 @@ public final class ResultsWorkbook {
     }
 
     /** Auto-size columns, write file to disk, and close the workbook. */
-    public static synchronized void finish() {
+    public static void finish() {
+        // rows still queued by workers go in before the file is written
+        BUFFER.close();
+        finishWorkbook();
+    }
+
+    private static synchronized void finishWorkbook() {
         if (wb == null || sheet == null) return;
 
         FileOutputStream fos = null;
@@ -0,0 +1,120 @@
+package utils;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Locale;
+
+/**
+ * Re-encodes captured PNGs into the configured storage format.
+ *
+ * Config: screenshot.format = png | jpeg | webp (default png; webp needs an ImageIO WebP plugin and
+ * falls back to jpeg without one), screenshot.quality = 0..1 (default 0.75, jpeg/webp only),
+ * screenshot.maxWidth = px (default 0 = keep the original width).
+ */
+public final class ScreenshotCodec {
+
+    private static volatile boolean webpWarned;
+
+    private ScreenshotCodec() {}
+
+    /** File extension (without dot) the configured format produces. */
+    public static String extension() {
+        switch (effectiveFormat()) {
+            case "jpeg": return "jpg";
+            case "webp": return "webp";
+            default:     return "png";
+        }
+    }
+
+    /** Convert a PNG capture to the configured format/size. PNG at full width is passed through untouched. */
+    public static byte[] encode(byte[] png) throws IOException {
+        String format = effectiveFormat();
+        int maxWidth = ConfigService.getInt("screenshot.maxWidth", 0);
+        if ("png".equals(format) && maxWidth <= 0) return png;
+
+        BufferedImage img = ImageIO.read(new ByteArrayInputStream(png));
+        if (img == null) return png;
+        if (maxWidth > 0 && img.getWidth() > maxWidth) img = scale(img, maxWidth);
+
+        if ("png".equals(format)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(img, "png", out);
+            return out.toByteArray();
+        }
+        // jpeg has no alpha channel
+        if ("jpeg".equals(format) && img.getType() != BufferedImage.TYPE_INT_RGB) img = toRgb(img);
+        float quality = (float) ConfigService.getDouble("screenshot.quality", 0.75);
+        return writeLossy(img, format, quality);
+    }
+
+    private static String effectiveFormat() {
+        String f = ConfigService.getString("screenshot.format", "png").toLowerCase(Locale.ROOT);
+        if (f.equals("jpg")) f = "jpeg";
+        if (f.equals("webp") && !ImageIO.getImageWritersByFormatName("webp").hasNext()) {
+            if (!webpWarned) {
+                webpWarned = true;
+                System.out.println("⚠ No WebP ImageIO writer on the classpath, storing screenshots as JPEG");
+            }
+            return "jpeg";
+        }
+        return f.equals("jpeg") || f.equals("webp") ? f : "png";
+    }
+
+    private static byte[] writeLossy(BufferedImage img, String format, float quality) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(format);
+        if (!writers.hasNext()) throw new IOException("No ImageIO writer for " + format);
+        ImageWriter writer = writers.next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(ios);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (param.canWriteCompressed()) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                String[] types = param.getCompressionTypes();
+                if (types != null && types.length > 0 && param.getCompressionType() == null) {
+                    param.setCompressionType(types[0]);
+                }
+                param.setCompressionQuality(Math.max(0f, Math.min(1f, quality)));
+            }
+            writer.write(null, new IIOImage(img, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private static BufferedImage scale(BufferedImage src, int width) {
+        int height = Math.max(1, (int) Math.round(src.getHeight() * (width / (double) src.getWidth())));
+        BufferedImage dst = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = dst.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(src, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return dst;
+    }
+
+    private static BufferedImage toRgb(BufferedImage src) {
+        BufferedImage dst = new BufferedImage(src.getWidth(), src.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = dst.createGraphics();
+        try {
+            g.drawImage(src, 0, 0, java.awt.Color.WHITE, null);
+        } finally {
+            g.dispose();
+        }
+        return dst;
+    }
+}
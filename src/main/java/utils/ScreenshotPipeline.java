@@ -0,0 +1,207 @@
+package utils;
+
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Writes screenshots off the test thread.
+ *
+ * The test thread only grabs the bytes and calls {@link #submit}; file writes and whatever follows
+ * (report attachment) run on a small bounded pool. When the queue is full the submitting thread runs
+ * the job itself (backpressure instead of unbounded memory). {@link #flush} is the end-of-suite barrier.
+ *
+ * Captures are re-encoded on the writer thread (see {@link ScreenshotCodec}) and de-duplicated by the
+ * SHA-256 of the captured bytes: an identical frame is stored once and later submissions reference that file.
+ *
+ * Config: screenshot.writerThreads (default 2), screenshot.queueCapacity (default 32), screenshot.dedupe (default true).
+ */
+public final class ScreenshotPipeline {
+
+    private static final ThreadPoolExecutor EXECUTOR;
+    private static final Object IDLE = new Object();
+    private static final AtomicInteger PENDING = new AtomicInteger();
+    // content hash of the captured bytes -> the file that holds that frame
+    private static final Map<String, Stored> STORED = new ConcurrentHashMap<>();
+
+    // metrics
+    private static final AtomicLong SUBMITTED = new AtomicLong();
+    private static final AtomicLong WRITTEN = new AtomicLong();
+    private static final AtomicLong FAILED = new AtomicLong();
+    private static final AtomicLong CALLER_RUNS = new AtomicLong();
+    private static final AtomicLong DEDUPED = new AtomicLong();
+    private static final AtomicLong RAW_BYTES = new AtomicLong();
+    private static final AtomicLong BYTES = new AtomicLong();
+    private static final AtomicLong ENCODE_NANOS = new AtomicLong();
+    private static final AtomicLong WRITE_NANOS = new AtomicLong();
+    private static final AtomicInteger MAX_QUEUE = new AtomicInteger();
+
+    static {
+        int threads = Math.max(1, ConfigService.getInt("screenshot.writerThreads", 2));
+        int capacity = Math.max(1, ConfigService.getInt("screenshot.queueCapacity", 32));
+        AtomicInteger n = new AtomicInteger();
+        RejectedExecutionHandler backpressure = (r, pool) -> {
+            CALLER_RUNS.incrementAndGet();
+            new ThreadPoolExecutor.CallerRunsPolicy().rejectedExecution(r, pool);
+        };
+        EXECUTOR = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(capacity), r -> {
+                    Thread t = new Thread(r, "screenshot-writer-" + n.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }, backpressure);
+        EXECUTOR.allowCoreThreadTimeOut(true);
+    }
+
+    private ScreenshotPipeline() {}
+
+    /** A stored frame: where it lives and when it is on disk. */
+    private static final class Stored {
+        final Path path;
+        final CompletableFuture<Path> written = new CompletableFuture<>();
+
+        Stored(Path path) { this.path = path; }
+    }
+
+    /**
+     * Queue a PNG capture to be encoded and written under {@code dest} (the extension follows screenshot.format),
+     * then hand the written path to {@code afterWrite} on the writer thread - or null if the write failed, so a
+     * caller that reports the result from the callback still does. Returns the final path immediately;
+     * for a frame that was already captured this is the existing file and nothing new is written.
+     */
+    public static Path submit(byte[] png, Path dest, Consumer<Path> afterWrite) {
+        SUBMITTED.incrementAndGet();
+        RAW_BYTES.addAndGet(png.length);
+
+        String hash = ConfigService.getBoolean("screenshot.dedupe", true) ? sha256(png) : null;
+        Stored fresh = new Stored(withExtension(dest, ScreenshotCodec.extension()));
+        Stored existing = hash == null ? null : STORED.putIfAbsent(hash, fresh);
+        Stored target = existing != null ? existing : fresh;
+        if (existing != null) DEDUPED.incrementAndGet();
+
+        PENDING.incrementAndGet();
+        EXECUTOR.execute(() -> {
+            Path result = null;
+            try {
+                if (existing == null) {
+                    try {
+                        write(png, fresh.path);
+                        fresh.written.complete(fresh.path);
+                    } catch (Exception e) {
+                        // forget the hash so the next identical frame gets another chance
+                        if (hash != null) STORED.remove(hash, fresh);
+                        fresh.written.completeExceptionally(e);
+                        throw e;
+                    }
+                } else {
+                    // the first copy may still be queued or in flight
+                    existing.written.join();
+                }
+                result = target.path;
+            } catch (Exception e) {
+                FAILED.incrementAndGet();
+                System.out.println("⚠ Screenshot write failed for " + target.path + ": " + e.getMessage());
+            }
+            try {
+                if (afterWrite != null) afterWrite.accept(result);
+            } catch (Exception e) {
+                System.out.println("⚠ Screenshot callback failed for " + target.path + ": " + e.getMessage());
+            } finally {
+                if (PENDING.decrementAndGet() == 0) {
+                    synchronized (IDLE) { IDLE.notifyAll(); }
+                }
+            }
+        });
+        MAX_QUEUE.accumulateAndGet(EXECUTOR.getQueue().size(), Math::max);
+        return target.path;
+    }
+
+    private static void write(byte[] png, Path dest) throws Exception {
+        long start = System.nanoTime();
+        byte[] bytes = ScreenshotCodec.encode(png);
+        ENCODE_NANOS.addAndGet(System.nanoTime() - start);
+        Path dir = dest.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        // private temp file, then move into place so readers never see a half-written image
+        Path tmp = Files.createTempFile(dir, ".shot-", ".tmp");
+        Files.write(tmp, bytes);
+        try {
+            Files.move(tmp, dest, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, dest, StandardCopyOption.REPLACE_EXISTING);
+        }
+        WRITTEN.incrementAndGet();
+        BYTES.addAndGet(bytes.length);
+        WRITE_NANOS.addAndGet(System.nanoTime() - start);
+    }
+
+    /** Block until every submitted screenshot is written and attached, or the timeout expires. Returns true when drained. */
+    public static boolean flush(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (IDLE) {
+            while (PENDING.get() > 0) {
+                long left = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (left <= 0) {
+                    System.out.println("⚠ Screenshot pipeline flush timed out with " + PENDING.get() + " pending");
+                    return false;
+                }
+                try {
+                    IDLE.wait(left);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        System.out.println("[ScreenshotPipeline] " + stats());
+        return true;
+    }
+
+    /** Jobs queued but not yet picked up by a writer. */
+    public static int queueDepth() { return EXECUTOR.getQueue().size(); }
+
+    public static String stats() {
+        long written = WRITTEN.get();
+        return "submitted=" + SUBMITTED.get()
+                + ", written=" + written
+                + ", deduped=" + DEDUPED.get()
+                + ", failed=" + FAILED.get()
+                + ", pending=" + PENDING.get()
+                + ", queueDepth=" + queueDepth()
+                + ", maxQueueDepth=" + MAX_QUEUE.get()
+                + ", backpressureRuns=" + CALLER_RUNS.get()
+                + ", capturedBytes=" + RAW_BYTES.get()
+                + ", storedBytes=" + BYTES.get()
+                + ", avgEncodeMs=" + (written == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(ENCODE_NANOS.get() / written))
+                + ", avgWriteMs=" + (written == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(WRITE_NANOS.get() / written));
+    }
+
+    private static Path withExtension(Path dest, String ext) {
+        String file = dest.getFileName().toString();
+        int dot = file.lastIndexOf('.');
+        return dest.resolveSibling((dot > 0 ? file.substring(0, dot) : file) + "." + ext);
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            StringBuilder hex = new StringBuilder(64);
+            for (byte b : MessageDigest.getInstance("SHA-256").digest(bytes)) hex.append(String.format("%02x", b));
+            return hex.toString();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
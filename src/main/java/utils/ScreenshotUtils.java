@@ -1,18 +1,21 @@
 package utils;
 
 import org.openqa.selenium.*;
-import java.io.File;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class ScreenshotUtils {
 
     // Run folder is set once per suite by BaseTest
     private static volatile String RUN_FOLDER = null;
 
+    // keeps file names unique when parallel workers capture in the same millisecond
+    private static final AtomicLong SEQ = new AtomicLong();
+
     /** Called by BaseTest @BeforeSuite */
     public static synchronized void initRunFolder(String runFolder) {
         if (RUN_FOLDER == null) {
@@ -25,24 +28,56 @@ public class ScreenshotUtils {
         return s == null ? "image" : s.replaceAll("[^a-zA-Z0-9._-]", "_");
     }
 
-    /** Takes a screenshot and returns the relative path (used by Extent + Excel). */
-    public static String takeScreenshot(WebDriver driver, String name) {
-        if (RUN_FOLDER == null) {
-            String ts = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss"));
-            initRunFolder("test-output/screenshots/run_" + ts);
+    /**
+     * Grab the PNG bytes for a capture. When screenshot.clipSelector is set and matches a visible element,
+     * only that element is captured; otherwise the viewport.
+     */
+    public static byte[] capture(WebDriver driver) {
+        String clip = ConfigService.getString("screenshot.clipSelector", "");
+        if (!clip.isEmpty()) {
+            try {
+                for (WebElement el : driver.findElements(By.cssSelector(clip))) {
+                    if (el.isDisplayed()) return el.getScreenshotAs(OutputType.BYTES);
+                }
+            } catch (Exception ignored) {}
         }
+        return ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+    }
 
-        String ts = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss_SSS"));
-        String fileName = safe(name) + "_" + ts + ".png";
-        Path dest = Paths.get(RUN_FOLDER, fileName);
+    /**
+     * Takes a screenshot and returns the relative path (used by Extent + Excel).
+     * Only the capture happens here; the file is written by ScreenshotPipeline (flush it before reading the files).
+     */
+    public static String takeScreenshot(WebDriver driver, String name) {
+        try {
+            return store(capture(driver), name);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
 
+    /** Capture just one element (its bounding box) instead of the whole viewport. */
+    public static String takeElementScreenshot(WebElement element, String name) {
         try {
-            File src = ((TakesScreenshot) driver).getScreenshotAs(OutputType.FILE);
-            Files.copy(src.toPath(), dest);
-            System.out.println("Screenshot saved: " + dest.toString().replace('\\', '/'));
+            return store(element.getScreenshotAs(OutputType.BYTES), name);
         } catch (Exception e) {
             e.printStackTrace();
+            return null;
+        }
+    }
+
+    private static String store(byte[] png, String name) {
+        if (RUN_FOLDER == null) {
+            String ts = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss"));
+            initRunFolder("test-output/screenshots/run_" + ts);
         }
-        return dest.toString().replace('\\', '/');
+
+        String ts = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss_SSS"));
+        String fileName = safe(name) + "_" + ts + "_" + SEQ.incrementAndGet() + ".png";
+        // the pipeline picks the final extension and may hand back an identical earlier frame instead
+        Path stored = ScreenshotPipeline.submit(png, Paths.get(RUN_FOLDER, fileName),
+                p -> { if (p != null) System.out.println("Screenshot saved: " + p.toString().replace('\\', '/')); });
+        return stored.toString().replace('\\', '/');
     }
 }
@@ -0,0 +1,336 @@
+package utils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared test data: each workbook sheet is parsed once per JVM into an immutable, column-indexed
+ * {@link Table} that all workers read concurrently.
+ *
+ * A compact binary copy (string dictionary + column indexes) is kept next to the workbook as
+ * &lt;file&gt;.&lt;sheet&gt;.tdcache, so later runs skip POI entirely. The cache is used while the workbook's
+ * mtime and size match; if only the mtime moved, a SHA-256 of the file decides.
+ *
+ * Config: testdata.cache (default true), testdata.cacheDir (default: the workbook's folder).
+ */
+public final class TestDataStore {
+
+    private static final int MAGIC = 0x54444331; // "TDC1"
+    private static final Map<String, Table> TABLES = new ConcurrentHashMap<>();
+
+    private TestDataStore() {}
+
+    /**
+     * The sheet as a shared table (null sheet = first sheet). {@code source} is a file path or a classpath
+     * resource such as "testdata.xlsx"; the first row is the header.
+     */
+    public static Table table(String source, String sheet) {
+        Path file = resolve(source);
+        String key = file.toAbsolutePath().normalize() + "#" + (sheet == null ? "" : sheet.toLowerCase(Locale.ROOT));
+        return TABLES.computeIfAbsent(key, k -> load(file, sheet));
+    }
+
+    /** Drop the in-memory copies (the binary caches stay). */
+    public static void clear() {
+        TABLES.clear();
+    }
+
+    // =================== Loading ===================
+
+    private static Table load(Path file, String sheet) {
+        long start = System.currentTimeMillis();
+        boolean useCache = ConfigService.getBoolean("testdata.cache", true);
+        Path cache = cacheFile(file, sheet);
+        try {
+            long mtime = Files.getLastModifiedTime(file).toMillis();
+            long size = Files.size(file);
+            byte[] hash = null;
+
+            if (useCache && Files.exists(cache)) {
+                try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(cache)))) {
+                    if (in.readInt() == MAGIC) {
+                        long cachedMtime = in.readLong();
+                        long cachedSize = in.readLong();
+                        byte[] cachedHash = new byte[32];
+                        in.readFully(cachedHash);
+                        boolean valid = cachedSize == size
+                                && (cachedMtime == mtime || Arrays.equals(cachedHash, hash = sha256(file)));
+                        if (valid) {
+                            Table t = readTable(in);
+                            // touched but unchanged: remember the new mtime so the next run skips the hash
+                            if (cachedMtime != mtime) writeCache(cache, t, mtime, size, cachedHash);
+                            System.out.println("[TestDataStore] " + file.getFileName() + " / " + t.getSheet()
+                                    + ": " + t.rowCount() + " rows from cache in " + (System.currentTimeMillis() - start) + " ms");
+                            return t;
+                        }
+                    }
+                } catch (IOException | RuntimeException e) {
+                    System.out.println("⚠ Ignoring unreadable test-data cache " + cache + ": " + e.getMessage());
+                }
+            }
+
+            Table t = parse(file, sheet);
+            System.out.println("[TestDataStore] " + file.getFileName() + " / " + t.getSheet()
+                    + ": parsed " + t.rowCount() + " rows in " + (System.currentTimeMillis() - start) + " ms");
+            if (useCache) writeCache(cache, t, mtime, size, hash != null ? hash : sha256(file));
+            return t;
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot load test data " + file + (sheet != null ? " / " + sheet : "") + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static Table parse(Path file, String sheet) throws IOException {
+        List<String> header = null;
+        List<List<String>> rows = new ArrayList<>();
+        try (ExcelRowReader reader = ExcelRowReader.open(file, sheet, false)) {
+            for (ExcelRowReader.DataRow r : reader) {
+                List<String> cells = new ArrayList<>(r.size());
+                for (int c = 0; c < r.size(); c++) cells.add(r.get(c));
+                if (header == null) header = cells;
+                else rows.add(cells);
+            }
+        }
+        if (header == null) header = Collections.emptyList();
+
+        String[][] columns = new String[header.size()][rows.size()];
+        for (int r = 0; r < rows.size(); r++) {
+            List<String> cells = rows.get(r);
+            for (int c = 0; c < header.size(); c++) {
+                columns[c][r] = c < cells.size() ? cells.get(c) : "";
+            }
+        }
+        return new Table(sheet == null ? "" : sheet, header.toArray(new String[0]), columns, rows.size());
+    }
+
+    // =================== Binary cache ===================
+    // magic, mtime, size, sha256[32], then: sheet, ncols, names, nrows, dictionary, per column nrows dictionary ids
+
+    private static void writeCache(Path cache, Table t, long mtime, long size, byte[] hash) {
+        try {
+            Files.createDirectories(cache.toAbsolutePath().getParent());
+            Path tmp = Files.createTempFile(cache.toAbsolutePath().getParent(), ".tdcache-", ".tmp");
+            try {
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                    out.writeInt(MAGIC);
+                    out.writeLong(mtime);
+                    out.writeLong(size);
+                    out.write(hash);
+                    writeTable(out, t);
+                }
+                try {
+                    Files.move(tmp, cache, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(tmp, cache, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        } catch (IOException e) {
+            System.out.println("⚠ Could not write test-data cache " + cache + ": " + e.getMessage());
+        }
+    }
+
+    private static void writeTable(DataOutputStream out, Table t) throws IOException {
+        writeString(out, t.sheet);
+        out.writeInt(t.header.length);
+        for (String h : t.header) writeString(out, h);
+        out.writeInt(t.rows);
+
+        // repeated values (statuses, categories, blanks) are stored once
+        Map<String, Integer> ids = new HashMap<>();
+        List<String> dictionary = new ArrayList<>();
+        int[][] refs = new int[t.columns.length][t.rows];
+        for (int c = 0; c < t.columns.length; c++) {
+            for (int r = 0; r < t.rows; r++) {
+                refs[c][r] = ids.computeIfAbsent(t.columns[c][r], v -> { dictionary.add(v); return dictionary.size() - 1; });
+            }
+        }
+        out.writeInt(dictionary.size());
+        for (String v : dictionary) writeString(out, v);
+        for (int[] col : refs) for (int id : col) writeVarInt(out, id);
+    }
+
+    private static Table readTable(DataInputStream in) throws IOException {
+        String sheet = readString(in);
+        String[] header = new String[in.readInt()];
+        for (int c = 0; c < header.length; c++) header[c] = readString(in);
+        int rows = in.readInt();
+        String[] dictionary = new String[in.readInt()];
+        for (int i = 0; i < dictionary.length; i++) dictionary[i] = readString(in);
+        String[][] columns = new String[header.length][rows];
+        for (int c = 0; c < header.length; c++) {
+            for (int r = 0; r < rows; r++) columns[c][r] = dictionary[readVarInt(in)];
+        }
+        return new Table(sheet, header, columns, rows);
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, b.length);
+        out.write(b);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] b = new byte[readVarInt(in)];
+        in.readFully(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    private static void writeVarInt(DataOutputStream out, int v) throws IOException {
+        while ((v & ~0x7F) != 0) {
+            out.writeByte((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        out.writeByte(v);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int v = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            v |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return v;
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    // =================== Helpers ===================
+
+    private static Path resolve(String source) {
+        Path p = Paths.get(source);
+        if (Files.exists(p)) return p;
+        Path res = Paths.get("src/test/resources", source);
+        if (Files.exists(res)) return res;
+        URL url = Thread.currentThread().getContextClassLoader().getResource(source);
+        if (url != null && "file".equals(url.getProtocol())) {
+            try { return Paths.get(url.toURI()); } catch (Exception ignored) {}
+        }
+        throw new IllegalArgumentException("Test data not found: " + source);
+    }
+
+    private static Path cacheFile(Path file, String sheet) {
+        String dir = ConfigService.getString("testdata.cacheDir", "");
+        Path folder = dir.isEmpty() ? file.toAbsolutePath().getParent() : Paths.get(dir);
+        String name = file.getFileName() + "." + (sheet == null ? "first" : sheet.replaceAll("[^a-zA-Z0-9._-]", "_")) + ".tdcache";
+        return folder.resolve(name);
+    }
+
+    private static byte[] sha256(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            byte[] buf = new byte[64 * 1024];
+            int n;
+            while ((n = in.read(buf)) > 0) md.update(buf, 0, n);
+            return md.digest();
+        } catch (java.security.NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // =================== Table ===================
+
+    /**
+     * An immutable sheet stored column by column. Safe to share between threads.
+     * Column names are matched case-insensitively; missing cells read as "".
+     */
+    public static final class Table {
+        private final String sheet;
+        private final String[] header;
+        private final String[][] columns; // [column][row]
+        private final int rows;
+        private final Map<String, Integer> index = new LinkedHashMap<>();
+        // column -> value -> row numbers, built on first lookup
+        private final Map<Integer, Map<String, List<Integer>>> valueIndex = new ConcurrentHashMap<>();
+
+        Table(String sheet, String[] header, String[][] columns, int rows) {
+            this.sheet = sheet;
+            this.header = header;
+            this.columns = columns;
+            this.rows = rows;
+            for (int c = 0; c < header.length; c++) {
+                if (!header[c].trim().isEmpty()) index.putIfAbsent(header[c].trim().toLowerCase(Locale.ROOT), c);
+            }
+        }
+
+        public String getSheet() { return sheet; }
+
+        public List<String> getColumns() { return Collections.unmodifiableList(Arrays.asList(header)); }
+
+        public int rowCount() { return rows; }
+
+        public boolean hasColumn(String column) { return index.containsKey(key(column)); }
+
+        /** Data row {@code row} (0 = first row after the header). */
+        public String get(int row, int col) {
+            if (row < 0 || row >= rows || col < 0 || col >= columns.length) return "";
+            return columns[col][row];
+        }
+
+        public String get(int row, String column) {
+            Integer c = index.get(key(column));
+            return c == null ? "" : get(row, c);
+        }
+
+        /** Every value of one column, top to bottom. */
+        public List<String> column(String column) {
+            Integer c = index.get(key(column));
+            return c == null ? Collections.emptyList() : Collections.unmodifiableList(Arrays.asList(columns[c]));
+        }
+
+        /** Header name -> value for one row. */
+        public Map<String, String> row(int row) {
+            Map<String, String> m = new LinkedHashMap<>();
+            for (int c = 0; c < header.length; c++) m.put(header[c], get(row, c));
+            return Collections.unmodifiableMap(m);
+        }
+
+        /** Rows whose {@code column} equals {@code value}, via a per-column index built once. */
+        public List<Map<String, String>> rowsWhere(String column, String value) {
+            Integer c = index.get(key(column));
+            if (c == null) return Collections.emptyList();
+            Map<String, List<Integer>> byValue = valueIndex.computeIfAbsent(c, col -> {
+                Map<String, List<Integer>> m = new HashMap<>();
+                for (int r = 0; r < rows; r++) m.computeIfAbsent(columns[col][r], v -> new ArrayList<>()).add(r);
+                return m;
+            });
+            List<Map<String, String>> out = new ArrayList<>();
+            for (int r : byValue.getOrDefault(value, Collections.emptyList())) out.add(row(r));
+            return out;
+        }
+
+        /** Rows as maps, e.g. for a TestNG @DataProvider. */
+        public Object[][] asDataProvider() {
+            Object[][] data = new Object[rows][1];
+            for (int r = 0; r < rows; r++) data[r][0] = row(r);
+            return data;
+        }
+
+        private static String key(String column) {
+            return column == null ? "" : column.trim().toLowerCase(Locale.ROOT);
+        }
+
+        @Override
+        public String toString() { return sheet + " " + Arrays.toString(header) + " x " + rows; }
+    }
+}
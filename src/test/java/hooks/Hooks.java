@@ -1,98 +1,213 @@
 package hooks;
 
 import base.DriverFactory;
-import com.aventstack.extentreports.ExtentReports;
-import com.aventstack.extentreports.ExtentTest;
-import com.aventstack.extentreports.MediaEntityBuilder;
+import base.DriverPool;
+import base.ResourcePolicy;
+import com.aventstack.extentreports.Status;
 import io.cucumber.java.*;
-import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
-import reporters.ExtentManager;
+import reporters.ReportingService;
+import reporters.ReportingService.ReportTest;
+import utils.ConfigService;
+import utils.EvidencePolicy;
+import utils.LocatorPriorityCache;
+import utils.NetworkWaterfall;
+import utils.ResultExporters;
+import utils.ResultJournal;
+import utils.ScreenshotPipeline;
+import utils.ScreenshotUtils;
 
-import java.io.File;
-import java.io.FileOutputStream;
-import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.Base64;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class Hooks {
 
-    private static ExtentReports extent;
-    private static final ThreadLocal<ExtentTest> TEST = new ThreadLocal<>();
+    // report calls only queue events; ReportingService applies them to Extent on its own thread
+    private static final ThreadLocal<ReportTest> TEST = new ThreadLocal<>();
+
+    // evidence file naming: <feature>_<scenario>_L<line>_a<attempt>[_sNN]; attempts count reruns of the same scenario
+    private static final Map<String, AtomicInteger> ATTEMPTS = new ConcurrentHashMap<>();
+    private static final ThreadLocal<String> EVIDENCE_KEY = new ThreadLocal<>();
+    private static final ThreadLocal<Integer> STEP = ThreadLocal.withInitial(() -> 0);
+    private static final ThreadLocal<Long> STARTED = new ThreadLocal<>();
+    // per-step network summaries when network.waterfall is on
+    private static final ThreadLocal<List<NetworkWaterfall.Step>> WATERFALL = ThreadLocal.withInitial(ArrayList::new);
 
     @BeforeAll
     public static void beforeAll() {
-        DriverFactory.getDriver();
+        // launch one browser per worker concurrently, each parked on baseUrl, before the first scenario
+        DriverPool pool = DriverPool.getInstance();
+        if (ConfigService.getBoolean("bootstrap.prenavigate", true)) {
+            pool.setLandingUrl(ConfigService.getString("baseUrl", "https://www.amazon.in/"));
+        }
+        pool.warmUp(DriverFactory.defaultBrowser(), ConfigService.getInt("bootstrap.browsers", ConfigService.getInt("threads", 1)));
+    }
+
+    @AfterAll
+    public static void afterAll() {
+        // every queued screenshot must be written and attached before the report is flushed
+        ScreenshotPipeline.flush(Duration.ofSeconds(60));
+        ReportingService.flush();
+        // journal is the source of truth; the spreadsheet / CSV / JUnit files are exported from it
+        ResultJournal.close();
+        ResultExporters.exportAll();
+        LocatorPriorityCache.save();
+        DriverFactory.shutdown();
+    }
 
+    @Before
+    public void beforeScenario(Scenario scenario) {
+        String uri = String.valueOf(scenario.getUri());
+        String feature = uri.substring(uri.lastIndexOf('/') + 1).replace(".feature", "");
         try {
-            extent = ExtentManager.getInstance();
+            TEST.set(ReportingService.startTest(scenario.getName(), feature, scenario.getSourceTagNames()));
         } catch (Exception e) {
-            System.err.println("Extent init warning: " + e.getMessage());
-            extent = null;
+            System.err.println("Report init warning: " + e.getMessage());
+        }
+        int attempt = ATTEMPTS.computeIfAbsent(uri + ":" + scenario.getLine(), k -> new AtomicInteger()).incrementAndGet();
+        EVIDENCE_KEY.set(safe(feature) + "_" + safe(scenario.getName()) + "_L" + scenario.getLine() + "_a" + attempt);
+        STEP.set(0);
+        STARTED.set(System.nanoTime());
+        try {
+            // functional scenarios skip images/fonts/media/ads (the pool parks browsers that way);
+            // @visual ones load everything, so their parked landing page is navigated again
+            WebDriver driver = DriverFactory.getDriver();
+            if (ResourcePolicy.apply(driver, scenario.getSourceTagNames()) == 0) {
+                DriverPool.getInstance().requireFullLanding(driver);
+            }
+        } catch (Exception e) {
+            System.err.println("Resource policy warning: " + e.getMessage());
         }
     }
 
-    @AfterAll
-    public static void afterAll() {
+    @BeforeStep
+    public void beforeStep() {
+        if (!NetworkWaterfall.enabled()) return;
         try {
-            if (extent != null) extent.flush();
+            NetworkWaterfall.beginStep(DriverFactory.getDriver());
         } catch (Exception e) {
-            System.err.println("Extent flush warning: " + e.getMessage());
+            System.err.println("Network waterfall warning: " + e.getMessage());
         }
-        DriverFactory.quitDriver();
     }
 
-    @Before
-    public void beforeScenario(Scenario scenario) {
-        if (extent != null) {
-            TEST.set(extent.createTest(scenario.getName()));
+    @AfterStep
+    public void afterStep(Scenario scenario) {
+        int step = STEP.get() + 1;
+        STEP.set(step);
+        if (NetworkWaterfall.enabled()) {
+            try {
+                NetworkWaterfall.Step s = NetworkWaterfall.endStep(DriverFactory.getDriver(), step);
+                if (s != null) WATERFALL.get().add(s);
+            } catch (Exception e) {
+                System.err.println("Network waterfall warning: " + e.getMessage());
+            }
+        }
+        if (!EvidencePolicy.current().capturesSteps()) return;
+        try {
+            boolean failed = scenario.isFailed();
+            capture(String.format("_s%02d", step), failed ? Status.FAIL : Status.INFO,
+                    "Step " + step + (failed ? " failed" : ""), false);
+        } catch (Exception e) {
+            System.err.println("After step capture warning: " + e.getMessage());
         }
     }
 
     @After
     public void afterScenario(Scenario scenario) {
-        WebDriver driver = DriverFactory.getDriver();
+        String evidence = null;
+        String network = null;
+        boolean endQueued = false;
         try {
-            if (driver instanceof TakesScreenshot) {
-                byte[] png = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
-                String base64 = Base64.getEncoder().encodeToString(png);
-
-                // ✅ Save screenshot in screenshots folder
-                saveScreenshotToFile(png, scenario);
-
-                if (extent != null && TEST.get() != null) {
-                    if (scenario.isFailed()) {
-                        TEST.get().fail("Scenario failed",
-                            MediaEntityBuilder.createScreenCaptureFromBase64String(base64, scenario.getName()).build());
-                    } else {
-                        TEST.get().pass("Scenario passed",
-                            MediaEntityBuilder.createScreenCaptureFromBase64String(base64, scenario.getName()).build());
-                    }
-                }
+            network = waterfall(scenario);
+            boolean failed = scenario.isFailed();
+            Status status = failed ? Status.FAIL : Status.PASS;
+            String message = failed ? "Scenario failed" : "Scenario passed";
+            // passing scenarios skip capture, encode and write entirely unless the policy asks for them
+            if (EvidencePolicy.current().capturesAtEnd(failed)) {
+                // the result is logged from the pipeline callback; end the test there, after it
+                evidence = capture("", status, message, true);
+                endQueued = true;
+            } else {
+                log(TEST.get(), status, message, null);
             }
         } catch (Exception e) {
             System.err.println("After scenario reporting warning: " + e.getMessage());
         } finally {
+            journal(scenario, evidence, network);
+            ReportTest test = TEST.get();
+            if (test != null && !endQueued) test.end();
             TEST.remove();
-            try {
-                driver.manage().deleteAllCookies();
-            } catch (Exception ignored) {}
+            EVIDENCE_KEY.remove();
+            STEP.remove();
+            STARTED.remove();
+            WATERFALL.remove();
+            // reset (cookies, storage, extra windows) and keep the browser warm for the next scenario
+            DriverFactory.releaseDriver();
         }
     }
 
-    private void saveScreenshotToFile(byte[] pngBytes, Scenario scenario) {
+    // writes target/network/<evidence key>.json and logs the step table; returns the file, or null when not recording
+    private static String waterfall(Scenario scenario) {
+        List<NetworkWaterfall.Step> steps = WATERFALL.get();
+        if (steps.isEmpty()) return null;
         try {
-            String screenshotDir = System.getProperty("user.dir") + File.separator + "screenshots";
-            File dir = new File(screenshotDir);
-            if (!dir.exists()) dir.mkdirs();
-
-            String fileName = screenshotDir + File.separator + scenario.getName().replaceAll("[^a-zA-Z0-9.-]", "_") + ".png";
-            try (FileOutputStream fos = new FileOutputStream(fileName)) {
-                fos.write(pngBytes);
-            }
+            Path file = NetworkWaterfall.write(
+                    Paths.get(ConfigService.getString("network.dir", "target/network"), EVIDENCE_KEY.get() + ".json"), scenario.getName(), steps);
+            String table = NetworkWaterfall.toText(steps).replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+            log(TEST.get(), Status.INFO, "Network: " + NetworkWaterfall.summary(steps) + "<pre>" + table + "</pre>", null);
+            return file.toString().replace('\\', '/');
         } catch (Exception e) {
-            System.err.println("Failed to save screenshot: " + e.getMessage());
+            System.err.println("Network waterfall warning: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static void journal(Scenario scenario, String evidence, String network) {
+        try {
+            String uri = String.valueOf(scenario.getUri());
+            Long started = STARTED.get();
+            // UNDEFINED / AMBIGUOUS / PENDING scenarios are broken, not skipped
+            String raw = String.valueOf(scenario.getStatus());
+            String status = raw.equals("PASSED") ? "PASS" : raw.equals("SKIPPED") ? "SKIP" : "FAIL";
+            ResultJournal.append("cucumber", uri.substring(uri.lastIndexOf('/') + 1), scenario.getName(), status,
+                    started == null ? 0 : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started),
+                    evidence, status.equals("FAIL") ? "Scenario " + raw.toLowerCase(Locale.ROOT) : null, network);
+        } catch (Exception ignored) {}
+    }
+
+    // only the capture runs on the scenario thread; encode, write and attach (and end, if asked) happen in the pipeline
+    private static String capture(String suffix, Status status, String message, boolean end) {
+        ReportTest test = TEST.get();
+        WebDriver driver = DriverFactory.getDriver();
+        if (!(driver instanceof TakesScreenshot)) {
+            log(test, status, message, null);
+            if (end && test != null) test.end();
+            return null;
         }
+        byte[] png = ScreenshotUtils.capture(driver);
+        Path dest = Paths.get(ConfigService.getString("evidence.dir", "target/evidence"), EVIDENCE_KEY.get() + suffix + ".png");
+        return ScreenshotPipeline.submit(png, dest, written -> {
+            log(test, status, message, written);
+            if (end && test != null) test.end();
+        }).toString().replace('\\', '/');
+    }
+
+    // may run on a screenshot-writer thread; the image is referenced by path, not embedded
+    private static void log(ReportTest test, Status status, String message, Path image) {
+        if (test == null) return;
+        test.log(status, message, image == null ? null : image.toString());
+    }
+
+    private static String safe(String s) {
+        return s == null ? "scenario" : s.replaceAll("[^a-zA-Z0-9.-]", "_");
     }
 }
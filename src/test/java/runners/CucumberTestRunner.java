@@ -13,15 +13,18 @@ import org.testng.annotations.DataProvider;
     plugin = {
         "pretty",
         "html:target/cucumber.html",
-        "json:target/cucumber.json"
+        "json:target/cucumber.json",
+        // p50/p90/p99/max per step definition: target/step-timings.{json,txt} (+ -history.jsonl)
+        "runners.StepTimingPlugin:target/step-timings"
     },
     monochrome = true
 )
 public class CucumberTestRunner extends AbstractTestNGCucumberTests {
 
-    // Single-threaded data provider (change to true to run scenarios in parallel)
+    // Scenarios run on the data-provider pool; its size comes from "threads"
+    // (see ParallelSuiteListener, default 1 = serial). Each worker leases its own browser.
     @Override
-    @DataProvider(parallel = false)
+    @DataProvider(parallel = true)
     public Object[][] scenarios() {
         return super.scenarios();
     }
@@ -0,0 +1,28 @@
+package runners;
+
+import org.testng.IAlterSuiteListener;
+import org.testng.xml.XmlSuite;
+import utils.ConfigService;
+
+import java.util.List;
+
+/**
+ * Sets the scenario worker count for CucumberTestRunner's parallel data provider.
+ *
+ * Reads "threads" through ConfigService (-Dthreads=4 or AMZ_THREADS=4 win over config.properties). 1 = serial run.
+ */
+public class ParallelSuiteListener implements IAlterSuiteListener {
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        int threads = threads();
+        for (XmlSuite suite : suites) {
+            suite.setDataProviderThreadCount(threads);
+        }
+        System.out.println("Scenario worker threads: " + threads);
+    }
+
+    static int threads() {
+        return Math.max(1, ConfigService.getInt("threads", 1));
+    }
+}
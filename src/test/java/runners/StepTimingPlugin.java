@@ -0,0 +1,173 @@
+package runners;
+
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.Status;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestStepFinished;
+import utils.ResultJournal;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Wall time per step definition, aggregated over every scenario of the run.
+ *
+ * Registered in CucumberTestRunner as "runners.StepTimingPlugin:target/step-timings"; writes
+ *   target/step-timings.json          count, p50/p90/p99/max (ms) and failures per step definition
+ *   target/step-timings.txt           the same as a table, slowest p90 first
+ *   target/step-timings-history.jsonl one line per step definition per run, for trends across runs
+ *
+ * Steps are keyed by their step definition method (SearchSteps.i_search_for_using_search_button), so every
+ * Gherkin phrasing that hits the same code is counted together. Only passed and failed steps are timed;
+ * skipped / undefined ones never ran.
+ */
+public class StepTimingPlugin implements ConcurrentEventListener {
+
+    private final Path base;
+    private final Map<String, Timings> timings = new ConcurrentHashMap<>();
+
+    public StepTimingPlugin() {
+        this("target/step-timings");
+    }
+
+    public StepTimingPlugin(String base) {
+        this.base = Paths.get(base);
+    }
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestStepFinished.class, this::onStepFinished);
+        publisher.registerHandlerFor(TestRunFinished.class, e -> write());
+    }
+
+    private void onStepFinished(TestStepFinished event) {
+        if (!(event.getTestStep() instanceof PickleStepTestStep)) return; // hooks
+        Status status = event.getResult().getStatus();
+        if (status != Status.PASSED && status != Status.FAILED) return;
+        PickleStepTestStep step = (PickleStepTestStep) event.getTestStep();
+        timings.computeIfAbsent(key(step.getCodeLocation()), k -> new Timings(step.getPattern()))
+               .add(event.getResult().getDuration().toNanos() / 1_000_000.0, status == Status.FAILED);
+    }
+
+    /** stepDefinitions.SearchSteps.i_search_for(java.lang.String) -> SearchSteps.i_search_for */
+    static String key(String codeLocation) {
+        if (codeLocation == null) return "unknown";
+        int paren = codeLocation.indexOf('(');
+        String s = paren < 0 ? codeLocation : codeLocation.substring(0, paren);
+        int method = s.lastIndexOf('.');
+        int cls = method < 0 ? -1 : s.lastIndexOf('.', method - 1);
+        return s.substring(cls + 1);
+    }
+
+    // =================== Aggregation ===================
+
+    private static final class Timings {
+        final String pattern;
+        private double[] ms = new double[16];
+        private int count;
+        private int failed;
+
+        Timings(String pattern) { this.pattern = pattern; }
+
+        synchronized void add(double value, boolean fail) {
+            if (count == ms.length) ms = Arrays.copyOf(ms, count * 2);
+            ms[count++] = value;
+            if (fail) failed++;
+        }
+
+        synchronized Summary summary(String key) {
+            double[] sorted = Arrays.copyOf(ms, count);
+            Arrays.sort(sorted);
+            return new Summary(key, pattern, count, failed,
+                    percentile(sorted, 50), percentile(sorted, 90), percentile(sorted, 99), sorted[count - 1]);
+        }
+
+        // nearest rank
+        private static double percentile(double[] sorted, int p) {
+            int rank = (int) Math.ceil(p / 100.0 * sorted.length);
+            return sorted[Math.max(0, rank - 1)];
+        }
+    }
+
+    private static final class Summary {
+        final String step, pattern;
+        final int count, failed;
+        final double p50, p90, p99, max;
+
+        Summary(String step, String pattern, int count, int failed, double p50, double p90, double p99, double max) {
+            this.step = step;
+            this.pattern = pattern;
+            this.count = count;
+            this.failed = failed;
+            this.p50 = p50;
+            this.p90 = p90;
+            this.p99 = p99;
+            this.max = max;
+        }
+
+        String toJson(String run) {
+            return "{" + (run == null ? "" : "\"run\":\"" + run + "\",\"ts\":" + System.currentTimeMillis() + ",")
+                    + "\"step\":\"" + json(step) + "\",\"pattern\":\"" + json(pattern) + "\",\"count\":" + count
+                    + ",\"failed\":" + failed + ",\"p50\":" + ms(p50) + ",\"p90\":" + ms(p90)
+                    + ",\"p99\":" + ms(p99) + ",\"max\":" + ms(max) + "}";
+        }
+    }
+
+    // =================== Output ===================
+
+    private void write() {
+        List<Summary> all = new ArrayList<>();
+        timings.forEach((k, t) -> all.add(t.summary(k)));
+        if (all.isEmpty()) return;
+        all.sort((a, b) -> Double.compare(b.p90, a.p90));
+
+        StringBuilder json = new StringBuilder("{\"run\":\"").append(ResultJournal.RUN_ID).append("\",\"steps\":[\n");
+        StringBuilder text = new StringBuilder(String.format(Locale.ROOT, "%-60s %6s %5s %9s %9s %9s %9s%n",
+                "step definition", "count", "fail", "p50 ms", "p90 ms", "p99 ms", "max ms"));
+        StringBuilder history = new StringBuilder();
+        for (int i = 0; i < all.size(); i++) {
+            Summary s = all.get(i);
+            json.append("  ").append(s.toJson(null)).append(i < all.size() - 1 ? ",\n" : "\n");
+            text.append(String.format(Locale.ROOT, "%-60s %6d %5d %9.0f %9.0f %9.0f %9.0f%n",
+                    s.step, s.count, s.failed, s.p50, s.p90, s.p99, s.max));
+            history.append(s.toJson(ResultJournal.RUN_ID)).append('\n');
+        }
+        json.append("]}\n");
+
+        try {
+            Files.createDirectories(base.toAbsolutePath().getParent());
+            Files.write(sibling(".json"), json.toString().getBytes(StandardCharsets.UTF_8));
+            Files.write(sibling(".txt"), text.toString().getBytes(StandardCharsets.UTF_8));
+            Files.write(sibling("-history.jsonl"), history.toString().getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            System.out.println("[StepTimingPlugin] " + all.size() + " step definitions timed -> " + sibling(".txt"));
+        } catch (IOException e) {
+            System.out.println("⚠ Could not write step timings: " + e.getMessage());
+        }
+    }
+
+    private Path sibling(String suffix) {
+        return base.resolveSibling(base.getFileName() + suffix);
+    }
+
+    private static String ms(double v) {
+        return String.format(Locale.ROOT, "%.1f", v);
+    }
+
+    private static String json(String s) {
+        if (s == null) return "";
+        return s.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n").replace("\r", "\\r").replace("\t", "\\t");
+    }
+}
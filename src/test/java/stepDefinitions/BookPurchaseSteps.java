@@ -15,6 +15,8 @@ import java.nio.charset.StandardCharsets;
 import java.util.function.Function;
 
 import base.DriverFactory;
+import utils.DomWaits;
+import utils.PageLoad;
 import io.cucumber.java.en.*;
 import org.openqa.selenium.*;
 import org.openqa.selenium.support.ui.ExpectedConditions;
@@ -23,6 +25,7 @@ import org.testng.Assert;
 import pages.CartPage;
 import pages.CheckoutPage;
 import pages.PaymentPage;
+import pages.ResultsPage;
 
 import java.time.Duration;
 import java.util.Arrays;
@@ -71,8 +74,8 @@ public class BookPurchaseSteps {
             }
             // switch to latest
             driver.switchTo().window(latest);
-            // small pause to allow page to stabilize
-            try { Thread.sleep(300); } catch (InterruptedException ignored) {}
+            // let the new tab finish loading
+            DomWaits.awaitReady(driver, Duration.ofSeconds(10));
         } catch (Exception ignored) {}
     }
 
@@ -129,12 +132,12 @@ public class BookPurchaseSteps {
                         searchBox.submit();
                     } else {
                         String encoded = java.net.URLEncoder.encode(query, java.nio.charset.StandardCharsets.UTF_8);
-                        driver.get("https://www.amazon.in/s?k=" + encoded);
+                        PageLoad.navigate(driver, "https://www.amazon.in/s?k=" + encoded, new ResultsPage(driver).readiness());
                     }
                 } catch (Exception e) {
                     // fallback: direct navigation
                     String encoded = java.net.URLEncoder.encode(query, java.nio.charset.StandardCharsets.UTF_8);
-                    driver.get("https://www.amazon.in/s?k=" + encoded);
+                    PageLoad.navigate(driver, "https://www.amazon.in/s?k=" + encoded, new ResultsPage(driver).readiness());
                 }
 
                 // wait for results with /dp/ links
@@ -148,8 +151,10 @@ public class BookPurchaseSteps {
                 }
                 if (pick != null) {
                     ((JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView({block:'center'});", pick);
+                    Set<String> handlesBefore = driver.getWindowHandles();
+                    String urlBefore = driver.getCurrentUrl();
                     try { pick.click(); } catch (Exception ex) { ((JavascriptExecutor) driver).executeScript("arguments[0].click();", pick); }
-                    Thread.sleep(1200);
+                    DomWaits.awaitNavigationOrNewWindow(driver, handlesBefore, urlBefore, Duration.ofSeconds(10));
 
                     // If a new window/tab was opened, close old tabs and switch to latest
                     switchToLatestWindowAndCloseOthers();
@@ -187,8 +192,10 @@ public class BookPurchaseSteps {
                     }
                     if (pick != null) {
                         ((JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView({block:'center'});", pick);
+                        Set<String> handlesBefore = driver.getWindowHandles();
+                        String urlBefore = driver.getCurrentUrl();
                         try { pick.click(); } catch (Exception e) { ((JavascriptExecutor) driver).executeScript("arguments[0].click();", pick); }
-                        Thread.sleep(800);
+                        DomWaits.awaitNavigationOrNewWindow(driver, handlesBefore, urlBefore, Duration.ofSeconds(10));
 
                         // handle windows/tabs (close old ones)
                         switchToLatestWindowAndCloseOthers();
@@ -281,8 +288,7 @@ public class BookPurchaseSteps {
                                 if (!e.isDisplayed() || !e.isEnabled()) continue;
                                 ((JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView({block:'center'});", e);
                                 try { e.click(); } catch (Exception ex) { ((JavascriptExecutor) driver).executeScript("arguments[0].click();", e); }
-                                Thread.sleep(800);
-                                // small wait for navigation or payment elements to appear
+                                // wait for navigation or payment elements to appear
                                 WebDriverWait shortWait = new WebDriverWait(driver, Duration.ofSeconds(6));
                                 boolean moved = shortWait.until(d -> {
                                     try {
@@ -302,8 +308,8 @@ public class BookPurchaseSteps {
 
                 // If navigated to checkout/payment, return early (skip the address fiddling below)
                 if (navigated) {
-                    // Small stabilization pause
-                    try { Thread.sleep(600); } catch (InterruptedException ignored) {}
+                    // let the checkout page finish loading
+                    DomWaits.awaitReady(driver, Duration.ofSeconds(10));
                     // Optionally log
                     System.out.println("Skipped address selection by clicking proceed-to-checkout (cart -> checkout/payment).");
                     return;
@@ -339,6 +345,9 @@ public class BookPurchaseSteps {
             System.out.println("[Step] Selected payment method: " + method);
         }
 
+        // selectInvalidPayment already submits (Add / Use / Continue), so take the URL before it can navigate
+        init();
+        String urlBefore = driver.getCurrentUrl();
         boolean filled = paymentPage.selectInvalidPayment(method);
         if (!filled) {
             System.out.println("[Step] WARNING: Could not fill invalid payment fields for: " + method);
@@ -346,10 +355,13 @@ public class BookPurchaseSteps {
             System.out.println("[Step] Filled invalid payment details for: " + method);
         }
 
-        // Wait a bit for the system to process attempt (adjust timeout as needed)
-        try {
-            Thread.sleep(3000);
-        } catch (InterruptedException ignored) {}
+        // Wait for the site to react to the attempt: an error/alert shows up or the page moves on
+        boolean reacted = DomWaits.awaitCondition(driver,
+                "return location.href !== " + DomWaits.jsString(urlBefore) +
+                " || Array.prototype.some.call(document.querySelectorAll('.a-alert-content, .pmts-error, .a-color-error, .a-form-error')," +
+                "   function (e) { return e.offsetParent !== null && (e.innerText || '').trim().length > 0; });",
+                Duration.ofSeconds(10));
+        if (!reacted) System.out.println("[Step] No visible reaction to the payment attempt within 10s");
 
         // Optionally, click any "submit" / "continue" button if your flow requires it here.
     }
@@ -1,18 +1,23 @@
 package stepDefinitions;
 
 import base.DriverFactory;
+import base.DriverPool;
 import io.cucumber.java.en.Given;
 import org.openqa.selenium.Dimension;
 import org.openqa.selenium.WebDriver;
+import pages.AmazonHomePage;
 import utils.ConfigReader;
+import utils.PageLoad;
 
 public class CommonSteps {
     @Given("I launch the application")
     public void i_launch_the_application() {
         WebDriver driver = DriverFactory.getDriver();
         String baseUrl = ConfigReader.getProperty("baseUrl", "https://www.amazon.in/");
-       // String basUel1 = ConfigReader.
-        driver.get(baseUrl);
+        // pooled browsers are usually already parked on baseUrl; only navigate if not
+        if (!DriverPool.getInstance().consumeLanding(driver, baseUrl)) {
+            PageLoad.navigate(driver, baseUrl, new AmazonHomePage(driver).readiness());
+        }
     }
 
     @Given("I launch the application in mobile view")
@@ -21,6 +26,6 @@ public class CommonSteps {
         driver.manage().window().setSize(new Dimension(390, 844)); // iPhone-ish
         String baseUrl = ConfigReader.getProperty("baseUrl", "https://www.amazon.in/");
         
-        driver.get(baseUrl);
+        PageLoad.navigate(driver, baseUrl, new AmazonHomePage(driver).readiness());
     }
 }
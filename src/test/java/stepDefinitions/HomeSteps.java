@@ -6,6 +6,10 @@ import org.openqa.selenium.By;
 import org.openqa.selenium.JavascriptExecutor;
 import org.testng.Assert;
 import pages.HomePage;
+import utils.DomWaits;
+import utils.OverlayDismisser;
+
+import java.time.Duration;
 
 public class HomeSteps {
 
@@ -18,47 +22,8 @@ public class HomeSteps {
     private HomePage hp() {
         if (homePage == null) homePage = new HomePage(DriverFactory.getDriver());
 
-        // --- Minimal, best-effort overlay dismissal (do not fail if not present) ---
-        try {
-            var driver = DriverFactory.getDriver();
-
-            // 1) Try Continue/Continue shopping-like buttons (broad text match)
-            try {
-                By cont = By.xpath(
-                    "//*[self::button or self::input or self::a][contains(normalize-space(.),'Continue shopping') or contains(normalize-space(.),'Continue Shopping') or contains(normalize-space(.),'Continue') or contains(normalize-space(.),'Shop now')]");
-                for (org.openqa.selenium.WebElement e : driver.findElements(cont)) {
-                    try {
-                        if (e.isDisplayed() && e.isEnabled()) { e.click(); Thread.sleep(300); }
-                    } catch (org.openqa.selenium.StaleElementReferenceException ignored) {}
-                }
-            } catch (Exception ignored) {}
-
-            // 2) Try known cookie/close selectors
-            try {
-                By closeBtn = By.cssSelector("#sp-cc-accept, input[name='glowDoneButton'], .a-button-close, button[aria-label='Close'], button[aria-label='close']");
-                for (org.openqa.selenium.WebElement e : driver.findElements(closeBtn)) {
-                    try { if (e.isDisplayed() && e.isEnabled()) e.click(); } catch (Exception ignored) {}
-                }
-            } catch (Exception ignored) {}
-
-            // 3) Try clicking backdrop / overlay elements
-            try {
-                By backdrop = By.xpath("//div[contains(@class,'overlay') or contains(@class,'modal-backdrop') or contains(@class,'a-popover-overlay') or contains(@class,'sp-landing')]");
-                for (org.openqa.selenium.WebElement b : driver.findElements(backdrop)) {
-                    try { if (b.isDisplayed()) { new org.openqa.selenium.interactions.Actions(driver).moveToElement(b).click().perform(); Thread.sleep(200); } } catch (Exception ignored) {}
-                }
-            } catch (Exception ignored) {}
-
-            // 4) Try ESC
-            try { new org.openqa.selenium.interactions.Actions(driver).sendKeys(org.openqa.selenium.Keys.ESCAPE).perform(); Thread.sleep(200); } catch (Exception ignored) {}
-
-            // 5) Tiny offset click as last resort
-            try { new org.openqa.selenium.interactions.Actions(driver).moveByOffset(5, 5).click().perform(); Thread.sleep(150); } catch (Exception ignored) {}
-
-        } catch (Exception e) {
-            // swallow — overlay dismissal is best-effort and must not break tests
-            System.out.println("hp() overlay dismissal: " + e.getMessage());
-        }
+        // best-effort overlay dismissal (single in-page check; no-op when nothing is showing)
+        OverlayDismisser.dismiss(DriverFactory.getDriver());
 
         return homePage;
     }
@@ -90,9 +55,6 @@ public class HomeSteps {
     public void i_should_see_banners() {
         var driver = DriverFactory.getDriver();
 
-        // small wait for content to render
-        try { Thread.sleep(1200); } catch (InterruptedException ignored) {}
-
         String[] bannerSelectors = new String[] {
             "#desktop-banner",
             ".gw-card-layout",
@@ -111,6 +73,9 @@ public class HomeSteps {
             ".shelf-carousel"
         };
 
+        // wait for the first banner-like container to render (returns as soon as one is in the DOM)
+        DomWaits.awaitPresent(driver, String.join(", ", bannerSelectors), Duration.ofSeconds(10));
+
         int bannersFound = 0;
         String matchedBy = "";
 
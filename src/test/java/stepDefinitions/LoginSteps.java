@@ -6,9 +6,12 @@ import org.testng.Assert;
 import pages.HomePage;
 import pages.LoginPage;
 import utils.ConfigReader;
+import utils.DomWaits;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebElement;
 
+import java.time.Duration;
+
 public class LoginSteps {
 
     private LoginPage loginPage;
@@ -231,13 +234,17 @@ public class LoginSteps {
         // If password field appears, fill it; otherwise rely on getErrorMessage in next assertion
         if (lp().waitForPasswordOrError(8)) {
             lp().enterPassword(password);
+            String urlBefore = DriverFactory.getDriver().getCurrentUrl();
             lp().clickSignIn();
-            try { Thread.sleep(1200); } catch (InterruptedException ignored) {}
+            // wait for the sign-in response: an error box, or the page moving on
+            DomWaits.awaitCondition(DriverFactory.getDriver(),
+                    "return location.href !== " + DomWaits.jsString(urlBefore) +
+                    " || !!document.querySelector('#auth-error-message-box, #auth-warning-message-box');",
+                    Duration.ofSeconds(10));
             lastErrorMessage = lp().getErrorMessage();
             if (lastErrorMessage == null) lastErrorMessage = "";
         } else {
-            // stayed on identifier page - capture error
-            try { Thread.sleep(800); } catch (InterruptedException ignored) {}
+            // stayed on identifier page - getErrorMessage() waits for the inline error itself
             lastErrorMessage = lp().getErrorMessage();
             if (lastErrorMessage == null) lastErrorMessage = "";
         }
@@ -25,9 +25,9 @@ public class RegistrationSteps {
     @When("I register a new account")
     public void i_register_a_new_account() {
         // Use mobile by default for Amazon IN (or switch to regEmail if needed)
-        String mobileOrEmail = System.getProperty("regMobile", ConfigReader.getProperty("regMobile"));
-        String name          = System.getProperty("regName",   ConfigReader.getProperty("regName"));
-        String password      = System.getProperty("regPassword", ConfigReader.getProperty("regPassword"));
+        String mobileOrEmail = ConfigReader.getProperty("regMobile");
+        String name          = ConfigReader.getProperty("regName");
+        String password      = ConfigReader.getProperty("regPassword");
 
         rp().openCreateAccountDirect();
         rp().fillCreateAccount(mobileOrEmail, name, password);
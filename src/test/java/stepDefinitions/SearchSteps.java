@@ -8,6 +8,7 @@ import org.openqa.selenium.support.ui.WebDriverWait;
 import org.testng.Assert;
 import pages.AmazonHomePage;
 import pages.ResultsPage;
+import utils.DomWaits;
 
 import java.time.Duration;
 import java.util.List;
@@ -111,6 +112,8 @@ public class SearchSteps {
 
         // click chosen link (scroll + JS fallback)
         try { ((JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView({block:'center'});", chosen); } catch (Exception ignored) {}
+        java.util.Set<String> handlesBefore = driver.getWindowHandles();
+        String urlBefore = driver.getCurrentUrl();
         try {
             wait.until(ExpectedConditions.elementToBeClickable(chosen)).click();
         } catch (Exception e) {
@@ -123,7 +126,7 @@ public class SearchSteps {
         // switch to new window if opened, or remain if same window
         try {
             String original = driver.getWindowHandle();
-            Thread.sleep(600);
+            DomWaits.awaitNavigationOrNewWindow(driver, handlesBefore, urlBefore, Duration.ofSeconds(10));
             for (String h : driver.getWindowHandles()) {
                 if (!h.equals(original)) {
                     driver.switchTo().window(h);
@@ -1,17 +1,17 @@
 Feature: Amazon Home Page Validation
-@Positive
+@Positive @visual
   Scenario: Verify company logo is visible
     Given I launch the application
     Then I should see the Amazon logo displayed
 
   
-@Positive
+@Positive @visual
   Scenario: Verify product images and banners load correctly
     Given I launch the application
     Then I should see homepage banners displayed
     And I should see product images loaded
 
- @Negative
+ @Negative @visual
  
   Scenario: Verify broken images
     Given I launch the application